@@ -0,0 +1,106 @@
+package com.dt042g.project;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Class used to call the Database class without blocking the calling thread.
+ * Calls are run on a small, bounded pool of daemon threads dedicated to the
+ * database and their results are returned as CompletableFutures. A future that
+ * is cancelled before its call has started is never run, and callers that
+ * update Swing components should continue the future on the event dispatch
+ * thread, e.g. with {@code thenAcceptAsync(..., SwingUtilities::invokeLater)}.
+ */
+public final class AsyncDatabase {
+    private static final int threads = 2;
+    private static final int queueCapacity = 64;
+    private static final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+            30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity), new WorkerFactory());
+
+    static {
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /** Private constructor for the class. */
+    private AsyncDatabase() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Function used to run a database call on the database threads.
+     * If too many calls are already waiting, the returned future fails
+     * with a RejectedExecutionException instead of blocking the caller.
+     *
+     * @param call the call to run, e.g. {@code () -> Database.getTaskNames()}
+     * @param <T> the type of the value returned by the call
+     * @return a future completed with the value returned by the call
+     */
+    public static <T> CompletableFuture<T> submit(Supplier<T> call) {
+        try {
+            return CompletableFuture.supplyAsync(call, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Function used to run a database call without a result, such as a
+     * delete, on the database threads.
+     *
+     * @param call the call to run
+     * @return a future completed when the call has finished
+     */
+    public static CompletableFuture<Void> run(Runnable call) {
+        return submit(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * Function used to run a task that reports its own progress, such as
+     * a SwingWorker delivering results to the event dispatch thread as they
+     * are found, on the database threads. If too many calls are already
+     * waiting, the task is cancelled instead of blocking the caller.
+     *
+     * @param task the task to run
+     * @param <T> the type of the task
+     * @return the task, to cancel it with once it is no longer needed
+     */
+    public static <T extends RunnableFuture<?>> T execute(T task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.cancel(false);
+        }
+        return task;
+    }
+
+    /**
+     * Thread factory creating the named daemon threads used for database
+     * calls, so that they never keep the program from exiting.
+     */
+    private static class WorkerFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        /**
+         * Function used to create a new database thread.
+         *
+         * @param runnable the work the thread will run
+         * @return the new thread
+         */
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "database-worker-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
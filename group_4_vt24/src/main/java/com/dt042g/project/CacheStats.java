@@ -0,0 +1,61 @@
+package com.dt042g.project;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class used to count hits and misses of one of the caches in the model layer,
+ * so that the caches can be sized after how they are actually used.
+ */
+public final class CacheStats {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /** Function used to record a lookup that was answered by the cache. */
+    void recordHit() {
+        hits.increment();
+    }
+
+    /** Function used to record a lookup that had to go past the cache. */
+    void recordMiss() {
+        misses.increment();
+    }
+
+    /**
+     * Getter function used to get the number of cache hits.
+     *
+     * @return the number of hits since the program started
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Getter function used to get the number of cache misses.
+     *
+     * @return the number of misses since the program started
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Function used to calculate the share of lookups answered by the cache.
+     *
+     * @return the hit rate between 0 and 1, or 0 if nothing has been looked up
+     */
+    public double getHitRate() {
+        long hitCount = getHits();
+        long total = hitCount + getMisses();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Function used to describe the counters in a readable form.
+     *
+     * @return a string containing the hits, misses and hit rate
+     */
+    @Override
+    public String toString() {
+        return String.format("hits=%d, misses=%d, hitRate=%.2f", getHits(), getMisses(), getHitRate());
+    }
+}
@@ -0,0 +1,26 @@
+package com.dt042g.project;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Record holding one row of the "category" table.
+ *
+ * @param name the name of the category
+ * @param description the description of the category
+ */
+public record Category(String name, String description) {
+
+    /**
+     * Function used to get the column values of the category as strings, in
+     * the order of the "category" table, as used by {@link Database#addCategory(List)}.
+     *
+     * @return list of the name and description of the category
+     */
+    public List<String> toValues() {
+        List<String> values = new ArrayList<>();
+        values.add(name);
+        values.add(description);
+        return values;
+    }
+}
@@ -0,0 +1,203 @@
+package com.dt042g.project;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-memory copy of the "category" table together with the number of tasks
+ * referencing each category. The cache is read from the database once and
+ * then kept up to date by the Database class whenever it adds or deletes
+ * a category or task, so that existence and reference checks become map
+ * lookups. The names are also kept in a prefix trie for autocompletion.
+ * A lookup of a single category counts as a hit if the category is in the
+ * cache and as a miss if it is not, or if the cache had to be read first.
+ * All changes must be made while holding the writer connection,
+ * which keeps them in the same order as the writes they mirror.
+ */
+final class CategoryCache {
+    private final Map<String, String> descriptions = new HashMap<>();
+    private final Map<String, Integer> references = new HashMap<>();
+    private CategoryTrie names = new CategoryTrie();
+    private final CacheStats stats = new CacheStats();
+    private volatile boolean loaded;
+
+    /**
+     * Function used to check whether the cache has been read from the database.
+     *
+     * @return true if the cache is loaded, false otherwise
+     */
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Function used to read every category and its reference count from the
+     * database, replacing anything already in the cache.
+     *
+     * @param conn the writer connection
+     * @throws SQLException if the categories could not be read
+     */
+    synchronized void load(PooledConnection conn) throws SQLException {
+        descriptions.clear();
+        references.clear();
+        names = new CategoryTrie();
+
+        try (ResultSet rs = conn.prepare("SELECT " + RowMapper.CATEGORY_COLUMNS + " FROM category").executeQuery()) {
+            while (rs.next()) {
+                Category category = RowMapper.toCategory(rs);
+                descriptions.put(category.name(), category.description());
+                names.add(category.name());
+            }
+        }
+        try (ResultSet rs = conn.prepare("SELECT category, COUNT(*) FROM task GROUP BY category").executeQuery()) {
+            while (rs.next()) {
+                references.put(rs.getString(1), rs.getInt(2));
+            }
+        }
+        loaded = true;
+    }
+
+    /**
+     * Function used to check whether a category exists.
+     *
+     * @param name the name of the category
+     * @return true if the category exists, false otherwise
+     */
+    synchronized boolean contains(String name) {
+        return record(descriptions.containsKey(name));
+    }
+
+    /**
+     * Function used to get a category.
+     *
+     * @param name the name of the category
+     * @return the category, or null if the category does not exist
+     */
+    synchronized Category get(String name) {
+        return record(descriptions.containsKey(name)) ? new Category(name, descriptions.get(name)) : null;
+    }
+
+    /**
+     * Function used to check whether any task references a category.
+     *
+     * @param name the name of the category
+     * @return true if at least one task references the category, false otherwise
+     */
+    synchronized boolean isReferenced(String name) {
+        record(descriptions.containsKey(name));
+        return references.getOrDefault(name, 0) > 0;
+    }
+
+    /**
+     * Function used to get a copy of every category and its description.
+     *
+     * @return a HashMap of category names to descriptions
+     */
+    synchronized HashMap<String, String> all() {
+        return new HashMap<>(descriptions);
+    }
+
+    /**
+     * Function used to get every category, ordered by name.
+     *
+     * @return a List of all categories
+     */
+    synchronized List<Category> categories() {
+        List<Category> categories = new ArrayList<>();
+        for (Map.Entry<String, String> entry : new TreeMap<>(descriptions).entrySet()) {
+            categories.add(new Category(entry.getKey(), entry.getValue()));
+        }
+        return categories;
+    }
+
+    /**
+     * Function used to get the names of the categories starting with a prefix,
+     * ignoring the case of ASCII letters.
+     *
+     * @param prefix the prefix
+     * @param limit the largest number of names to return
+     * @return a List of the matching names, in alphabetical order ignoring case
+     */
+    synchronized List<String> startingWith(String prefix, int limit) {
+        List<String> matches = names.startingWith(prefix, limit);
+        record(!matches.isEmpty());
+        return matches;
+    }
+
+    /**
+     * Private function used to count a lookup as a hit or a miss.
+     *
+     * @param found whether the cache held what was looked up
+     * @return the value of found
+     */
+    private boolean record(boolean found) {
+        if (found) {
+            stats.recordHit();
+        } else {
+            stats.recordMiss();
+        }
+        return found;
+    }
+
+    /**
+     * Function used to record that the cache could not answer a lookup,
+     * because it had not been loaded yet.
+     */
+    void recordMiss() {
+        stats.recordMiss();
+    }
+
+    /**
+     * Function used to record a category added to the database.
+     *
+     * @param name the name of the category
+     * @param description the description of the category
+     */
+    synchronized void categoryAdded(String name, String description) {
+        descriptions.put(name, description);
+        names.add(name);
+    }
+
+    /**
+     * Function used to record a category deleted from the database.
+     *
+     * @param name the name of the category
+     */
+    synchronized void categoryDeleted(String name) {
+        descriptions.remove(name);
+        references.remove(name);
+        names.remove(name);
+    }
+
+    /**
+     * Function used to record a task added to the database.
+     *
+     * @param category the category of the task
+     */
+    synchronized void taskAdded(String category) {
+        references.merge(category, 1, Integer::sum);
+    }
+
+    /**
+     * Function used to record a task deleted from the database.
+     *
+     * @param category the category of the task
+     */
+    synchronized void taskDeleted(String category) {
+        references.computeIfPresent(category, (name, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /**
+     * Getter function used to get the hit and miss counters of the cache.
+     *
+     * @return the cache counters
+     */
+    CacheStats stats() {
+        return stats;
+    }
+}
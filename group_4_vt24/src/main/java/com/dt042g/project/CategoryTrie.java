@@ -0,0 +1,209 @@
+package com.dt042g.project;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Compressed prefix trie of category names, answering which categories start
+ * with a prefix by walking down the prefix instead of checking every name.
+ * Chains of nodes with a single child are merged into one edge labelled with
+ * the whole run of characters, so the trie has at most two nodes per name.
+ * Like searches, prefixes match regardless of the case of ASCII letters, so
+ * names are filed under their lower-cased form, and names only differing in
+ * case share a node.
+ *
+ * The trie is not thread-safe, it is owned by the CategoryCache which
+ * synchronizes every access to it.
+ */
+final class CategoryTrie {
+    private final Node root = new Node();
+    private int size;
+
+    /**
+     * Class holding one node of the trie: the names ending at the node and
+     * the edges to its children, keyed by the first character of their label.
+     */
+    private static final class Node {
+        private final TreeMap<Character, Edge> children = new TreeMap<>();
+        private final TreeSet<String> names = new TreeSet<>();
+    }
+
+    /**
+     * Record holding an edge of the trie and the characters it is labelled with.
+     *
+     * @param label the characters on the edge, never empty
+     * @param node the node the edge leads to
+     */
+    private record Edge(String label, Node node) {
+    }
+
+    /**
+     * Function used to add a category name to the trie.
+     *
+     * @param name the name of the category
+     */
+    void add(String name) {
+        String key = SearchCache.normalize(name);
+        Node node = root;
+        int depth = 0;
+
+        while (depth < key.length()) {
+            Edge edge = node.children.get(key.charAt(depth));
+            if (edge == null) {
+                Node leaf = new Node();
+                node.children.put(key.charAt(depth), new Edge(key.substring(depth), leaf));
+                node = leaf;
+                break;
+            }
+
+            int common = commonLength(edge.label(), key, depth);
+            if (common < edge.label().length()) {
+                // split the edge where the key leaves it
+                Node middle = new Node();
+                middle.children.put(edge.label().charAt(common),
+                        new Edge(edge.label().substring(common), edge.node()));
+                node.children.put(key.charAt(depth), new Edge(edge.label().substring(0, common), middle));
+                node = middle;
+            } else {
+                node = edge.node();
+            }
+            depth += common;
+        }
+
+        if (node.names.add(name)) size++;
+    }
+
+    /**
+     * Function used to remove a category name from the trie, merging the
+     * edges around any node left with a single child.
+     *
+     * @param name the name of the category
+     */
+    void remove(String name) {
+        String key = SearchCache.normalize(name);
+        List<Node> path = new ArrayList<>();
+        List<Edge> edges = new ArrayList<>();
+        Node node = root;
+        int depth = 0;
+
+        while (depth < key.length()) {
+            Edge edge = node.children.get(key.charAt(depth));
+            if (edge == null || !key.startsWith(edge.label(), depth)) return;
+
+            path.add(node);
+            edges.add(edge);
+            node = edge.node();
+            depth += edge.label().length();
+        }
+        if (!node.names.remove(name)) return;
+        size--;
+
+        // walk back up, dropping empty leaves and merging single-child nodes into their edge
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node parent = path.get(i);
+            Edge edge = edges.get(i);
+            Node child = edge.node();
+            char first = edge.label().charAt(0);
+
+            if (child.names.isEmpty() && child.children.isEmpty()) {
+                parent.children.remove(first);
+            } else if (child.names.isEmpty() && child.children.size() == 1) {
+                Edge only = child.children.firstEntry().getValue();
+                parent.children.put(first, new Edge(edge.label() + only.label(), only.node()));
+            } else {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Function used to get the category names starting with a prefix, in
+     * alphabetical order ignoring case.
+     *
+     * @param prefix the prefix
+     * @param limit the largest number of names to return
+     * @return a List of the matching names
+     */
+    List<String> startingWith(String prefix, int limit) {
+        List<String> names = new ArrayList<>();
+        String key = SearchCache.normalize(prefix);
+        Node node = root;
+        int depth = 0;
+
+        // find the node at or just below the end of the prefix
+        while (depth < key.length()) {
+            Edge edge = node.children.get(key.charAt(depth));
+            if (edge == null) return names;
+
+            int common = commonLength(edge.label(), key, depth);
+            if (common < edge.label().length() && depth + common < key.length()) return names;
+            node = edge.node();
+            depth += edge.label().length();
+        }
+
+        // collect the names below it depth first, in the order of the edges
+        ArrayDeque<Node> pending = new ArrayDeque<>();
+        pending.push(node);
+        while (!pending.isEmpty() && names.size() < limit) {
+            Node current = pending.pop();
+            for (String name : current.names) {
+                if (names.size() == limit) break;
+                names.add(name);
+            }
+            for (Map.Entry<Character, Edge> child : current.children.descendingMap().entrySet()) {
+                pending.push(child.getValue().node());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Function used to get the number of names in the trie.
+     *
+     * @return the number of names
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Function used to get the number of nodes in the trie, including the root.
+     *
+     * @return the number of nodes
+     */
+    int nodeCount() {
+        int count = 0;
+        ArrayDeque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            count++;
+            for (Edge edge : node.children.values()) {
+                pending.push(edge.node());
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Private function used to count how many characters of an edge label
+     * match a key from a given position.
+     *
+     * @param label the edge label
+     * @param key the key
+     * @param from the position in the key to start at
+     * @return the number of matching characters
+     */
+    private static int commonLength(String label, String key, int from) {
+        int length = 0;
+        while (length < label.length() && from + length < key.length()
+                && label.charAt(length) == key.charAt(from + length)) {
+            length++;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,311 @@
+package com.dt042g.project;
+
+import org.sqlite.SQLiteConfig;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Class managing the lifecycle of the connections used by the Database class.
+ * All writes go through a single long-lived writer connection which is only
+ * used by one thread at a time, while reads borrow a connection from a small
+ * pool of read-only connections. Connections are opened lazily, tuned by the
+ * TuningProfile, health checked before they are handed out and reopened if
+ * they have gone bad.
+ */
+final class ConnectionManager implements AutoCloseable {
+    private static final long BORROW_TIMEOUT_SECONDS = 10;
+
+    private final TuningProfile profile;
+    private final int readerPoolSize;
+    private final ReentrantLock writerLock = new ReentrantLock();
+    private final BlockingQueue<PooledConnection> idleReaders;
+    private final AtomicInteger openReaders = new AtomicInteger();
+    private final CacheStats statementStats = new CacheStats();
+
+    private PooledConnection writer;
+    private volatile boolean databaseCreated;
+    private volatile boolean closed;
+
+    /**
+     * Constructor for the ConnectionManager class, no connections are
+     * opened until they are first needed.
+     *
+     * @param profile the profile describing the database and how to tune its connections
+     */
+    ConnectionManager(TuningProfile profile) {
+        this.profile = profile;
+        this.readerPoolSize = profile.readerPoolSize();
+        this.idleReaders = new LinkedBlockingQueue<>(Math.max(1, readerPoolSize));
+    }
+
+    /**
+     * Function used to run work against the writer connection. Calls from
+     * different threads are serialized, so the connection is never used
+     * by more than one thread at a time.
+     *
+     * @param work the work to run
+     * @param <T> the type of the value produced by the work
+     * @return the value produced by the work
+     * @throws SQLException if the connection could not be opened or the work failed
+     */
+    <T> T write(SqlFunction<T> work) throws SQLException {
+        writerLock.lock();
+        try {
+            return work.apply(writer());
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Function used to run work against the writer connection inside a single
+     * transaction. The transaction is committed if the work completes and
+     * rolled back if it throws.
+     *
+     * @param work the work to run
+     * @param <T> the type of the value produced by the work
+     * @return the value produced by the work
+     * @throws SQLException if the connection could not be opened or the work failed
+     */
+    <T> T transaction(SqlFunction<T> work) throws SQLException {
+        return write(conn -> {
+            Connection connection = conn.connection();
+            connection.setAutoCommit(false);
+            try {
+                T result = work.apply(conn);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackError) {
+                    e.addSuppressed(rollbackError);
+                }
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        });
+    }
+
+    /**
+     * Function used to run read-only work against a pooled reader connection.
+     * If every reader is busy the call waits for one to be returned. Without
+     * a reader pool, the work is run against the writer connection.
+     *
+     * @param work the work to run
+     * @param <T> the type of the value produced by the work
+     * @return the value produced by the work
+     * @throws SQLException if no connection could be borrowed or the work failed
+     */
+    <T> T read(SqlFunction<T> work) throws SQLException {
+        if (readerPoolSize == 0) return write(work);
+
+        PooledConnection reader = borrowReader();
+        try {
+            return work.apply(reader);
+        } finally {
+            releaseReader(reader);
+        }
+    }
+
+    /**
+     * Function used to borrow a reader connection that the caller keeps until
+     * it hands it back with {@link #release(PooledConnection)}, for reads that
+     * outlive a single call such as streamed results. Without a reader pool,
+     * a separate read-only connection is opened so that the writer is not
+     * held for the lifetime of the read.
+     *
+     * @return a reader connection
+     * @throws SQLException if no connection could be borrowed
+     */
+    PooledConnection borrow() throws SQLException {
+        if (readerPoolSize > 0) return borrowReader();
+
+        ensureOpen();
+        ensureDatabaseCreated();
+        return open(true);
+    }
+
+    /**
+     * Function used to hand back a connection borrowed with {@link #borrow()}.
+     *
+     * @param reader the connection to return
+     */
+    void release(PooledConnection reader) {
+        if (readerPoolSize > 0) {
+            releaseReader(reader);
+        } else {
+            reader.close();
+        }
+    }
+
+    /**
+     * Function used to check whether the database can be reached through
+     * the writer connection.
+     *
+     * @return true if the writer connection is healthy, false otherwise
+     */
+    boolean isHealthy() {
+        try {
+            return write(PooledConnection::isHealthy);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Getter function used to get the hit and miss counters shared by the
+     * statement caches of every connection.
+     *
+     * @return the statement cache counters
+     */
+    CacheStats statementCacheStats() {
+        return statementStats;
+    }
+
+    /**
+     * Function used to close every connection owned by the manager. Readers
+     * that are borrowed while the manager closes are closed when returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+
+        PooledConnection reader;
+        while ((reader = idleReaders.poll()) != null) {
+            reader.close();
+            openReaders.decrementAndGet();
+        }
+
+        writerLock.lock();
+        try {
+            if (writer != null) {
+                writer.close();
+                writer = null;
+            }
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Private function used to get the writer connection, (re)opening it if
+     * it has not been opened yet or failed its health check. Must be called
+     * while holding the writer lock.
+     *
+     * @return a healthy writer connection
+     * @throws SQLException if the connection could not be opened
+     */
+    private PooledConnection writer() throws SQLException {
+        ensureOpen();
+        if (writer == null || !writer.isHealthy()) {
+            if (writer != null) writer.close();
+            writer = open(false);
+            databaseCreated = true;
+        }
+        return writer;
+    }
+
+    /**
+     * Private function used to borrow a reader, either an idle one, a newly
+     * opened one if the pool is not full, or the next one to be returned.
+     *
+     * @return a healthy reader connection
+     * @throws SQLException if no connection could be borrowed in time
+     */
+    private PooledConnection borrowReader() throws SQLException {
+        ensureOpen();
+        ensureDatabaseCreated();
+
+        PooledConnection reader = idleReaders.poll();
+        if (reader == null) {
+            if (openReaders.incrementAndGet() <= readerPoolSize) {
+                try {
+                    return open(true);
+                } catch (SQLException e) {
+                    openReaders.decrementAndGet();
+                    throw e;
+                }
+            }
+            openReaders.decrementAndGet();
+
+            try {
+                reader = idleReaders.poll(BORROW_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a database connection", e);
+            }
+            if (reader == null) throw new SQLException("Timed out waiting for a database connection");
+        }
+
+        if (!reader.isHealthy()) {
+            reader.close();
+            try {
+                reader = open(true);
+            } catch (SQLException e) {
+                // the closed reader's slot is free again
+                openReaders.decrementAndGet();
+                throw e;
+            }
+        }
+        return reader;
+    }
+
+    /**
+     * Private function used to hand a borrowed reader back to the pool,
+     * or close it if the manager has been closed in the meantime.
+     *
+     * @param reader the reader to return
+     */
+    private void releaseReader(PooledConnection reader) {
+        if (closed || !idleReaders.offer(reader)) {
+            reader.close();
+            openReaders.decrementAndGet();
+        }
+    }
+
+    /**
+     * Private function used to make sure the database file exists before a
+     * read-only connection is opened to it, by opening the writer once.
+     *
+     * @throws SQLException if the writer connection could not be opened
+     */
+    private void ensureDatabaseCreated() throws SQLException {
+        if (!databaseCreated) {
+            write(conn -> null);
+        }
+    }
+
+    /**
+     * Private function used to reject work after the manager has been closed.
+     *
+     * @throws SQLException if the manager is closed
+     */
+    private void ensureOpen() throws SQLException {
+        if (closed) throw new SQLException("Connection manager has been closed");
+    }
+
+    /**
+     * Private function used to open a new connection to the database, with
+     * the pragmas of the tuning profile applied.
+     *
+     * @param readOnly whether the connection should be opened as read-only
+     * @return the new connection
+     * @throws SQLException if the connection could not be opened
+     */
+    private PooledConnection open(boolean readOnly) throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        profile.applyTo(config, readOnly);
+
+        return new PooledConnection(DriverManager.getConnection(profile.url(), config.toProperties()),
+                statementStats);
+    }
+}
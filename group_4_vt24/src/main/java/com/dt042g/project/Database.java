@@ -3,20 +3,130 @@ package com.dt042g.project;
 import org.sqlite.SQLiteException;
 
 import java.sql.*;
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Class handling connection to the SQLite database for the application.
+ * Connections are owned by a ConnectionManager and kept open for the
+ * lifetime of the program, instead of being opened for every call.
  *
  * @author Kevin Rosenbergs
  */
 public class Database {
-    private static final String url = "jdbc:sqlite:todo_list_database.db";
-    private static final String user = "";
-    private static final String password = "";
+    private static final TuningProfile profile = TuningProfile.load();
+    private static final ConnectionManager connections = new ConnectionManager(profile);
+    private static final CategoryCache categoryCache = new CategoryCache();
+    private static final TrigramIndex taskIndex = new TrigramIndex();
+    private static final FuzzyIndex<TaskSummary> fuzzyTaskIndex =
+            new FuzzyIndex<>(Comparator.comparingLong(TaskSummary::id));
+    private static final FuzzyIndex<String> fuzzyCategoryIndex =
+            new FuzzyIndex<>(Comparator.<String>naturalOrder());
+    private static final SearchCache<ArrayDeque<TaskSummary>> taskSearchCache =
+            new SearchCache<>(256, 100_000, ArrayDeque::size);
+    private static final SearchCache<HashMap<String, String>> categorySearchCache =
+            new SearchCache<>(256, 100_000, HashMap::size);
+    private static final AtomicLong taskVersion = new AtomicLong();
+    private static final AtomicLong categoryVersion = new AtomicLong();
+
+    static {
+        // Bring the schema up to date before it is queried
+        try {
+            Migrations.migrate(connections);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        // Close the connections cleanly when the program exits
+        Runtime.getRuntime().addShutdownHook(new Thread(Database::shutdown, "database-shutdown"));
+    }
+
+    /** Private constructor for the class. */
+    private Database() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Getter function used to get the name of the tuning profile the
+     * connections were opened with.
+     *
+     * @return the profile name, e.g. "durable" or "throughput"
+     */
+    public static String getProfileName() {
+        return profile.name();
+    }
+
+    /**
+     * Getter function used to get the hit and miss counters of the prepared
+     * statement caches kept for each connection.
+     *
+     * @return the statement cache counters
+     */
+    public static CacheStats getStatementCacheStats() {
+        return connections.statementCacheStats();
+    }
+
+    /**
+     * Getter function used to get the hit and miss counters of the in-memory
+     * category cache answering category lookups.
+     *
+     * @return the category cache counters
+     */
+    public static CacheStats getCategoryCacheStats() {
+        return categoryCache.stats();
+    }
+
+    /**
+     * Getter function used to get the hit and miss counters of the cache
+     * holding the results of recent task searches.
+     *
+     * @return the task search cache counters
+     */
+    public static CacheStats getTaskSearchCacheStats() {
+        return taskSearchCache.stats();
+    }
+
+    /**
+     * Getter function used to get the hit and miss counters of the cache
+     * holding the results of recent category searches.
+     *
+     * @return the category search cache counters
+     */
+    public static CacheStats getCategorySearchCacheStats() {
+        return categorySearchCache.stats();
+    }
+
+    /**
+     * Getter function used to get a number that changes whenever tasks are
+     * added or deleted, so that a view can tell whether the tasks it shows
+     * are still up to date without reading them again.
+     *
+     * @return the version of the tasks
+     */
+    public static long getTaskVersion() {
+        return taskVersion.get();
+    }
+
+    /**
+     * Getter function used to get a number that changes whenever categories
+     * are added or deleted.
+     *
+     * @return the version of the categories
+     */
+    public static long getCategoryVersion() {
+        return categoryVersion.get();
+    }
+
+    /**
+     * Function used to close all connections to the database. Any call made
+     * to the class after this will fail as if the database was unreachable.
+     */
+    public static void shutdown() {
+        connections.close();
+    }
 
     /**
      * Checks whether the database has been successfully connected.
@@ -24,35 +134,35 @@ public class Database {
      * @return a boolean stating whether the connection was successful or not
      */
     public static boolean isDatabaseConnected() {
-        try (Connection conn = DriverManager.getConnection(url, user, password)) {
-            return true; // Connection is successful
-        } catch (SQLException e) {
-            // Error connecting to the database
-            return false;
-        }
+        return connections.isHealthy();
     }
 
     /**
-     * Function used to retrieve the names of all tables in the database.
+     * Function used to retrieve the names of all tables in the database that
+     * hold application data. The virtual table used for full-text search and
+     * the shadow tables behind it are left out.
      *
      * @return a List of table names
      */
     public static List<String> getTableNames() {
         List<String> tableNames = new ArrayList<>();
 
-        try (Connection conn = DriverManager.getConnection(url, user, password);
-             Statement stmt = conn.createStatement()) {
-
-            // SQL query to retrieve table names
-            String sql = "SELECT name FROM sqlite_master WHERE type='table'";
+        try {
+            connections.read(conn -> {
+                // SQL query to retrieve table names
+                String sql = "SELECT name FROM pragma_table_list WHERE schema = 'main' AND type = 'table' "
+                        + "AND name NOT LIKE 'sqlite_%' ORDER BY name";
 
-            // Execute the query
-            ResultSet rs = stmt.executeQuery(sql);
+                // Execute the query
+                try (ResultSet rs = conn.prepare(sql).executeQuery()) {
 
-            // Iterate through the result set and add table names to the deque
-            while (rs.next()) {
-                tableNames.add(rs.getString("name"));
-            }
+                    // Iterate through the result set and add table names to the deque
+                    while (rs.next()) {
+                        tableNames.add(rs.getString("name"));
+                    }
+                }
+                return tableNames;
+            });
 
         } catch (SQLException e) {
             // Handle any errors
@@ -61,6 +171,56 @@ public class Database {
         return tableNames;
     }
 
+    /**
+     * Getter function used to get the version of the database schema, as
+     * stored by the migrations run at startup.
+     *
+     * @return the schema version
+     */
+    public static int getSchemaVersion() {
+        try {
+            return connections.read(Migrations::version);
+        } catch (SQLException e) {
+            // Handle any errors
+            e.printStackTrace();
+        }
+        return 0;
+    }
+
+    /**
+     * Function used to retrieve the names of the indexes created on a table,
+     * not counting the ones SQLite creates for primary keys.
+     *
+     * @param tableName the name of the table
+     * @return a List of index names, ordered by name
+     */
+    public static List<String> getIndexNames(String tableName) {
+        List<String> indexNames = new ArrayList<>();
+
+        try {
+            connections.read(conn -> {
+                // SQL query to retrieve the indexes of the table
+                String sql = "SELECT name FROM sqlite_master WHERE type = 'index' AND tbl_name = ? "
+                        + "AND name NOT LIKE 'sqlite_%' ORDER BY name";
+                PreparedStatement preparedStatement = conn.prepare(sql);
+                preparedStatement.setString(1, tableName);
+
+                // Execute the query
+                try (ResultSet rs = preparedStatement.executeQuery()) {
+                    while (rs.next()) {
+                        indexNames.add(rs.getString("name"));
+                    }
+                }
+                return null;
+            });
+
+        } catch (SQLException e) {
+            // Handle any errors
+            e.printStackTrace();
+        }
+        return indexNames;
+    }
+
     /**
      * Function used to retrieve the name values from all rows in the "task" table.
      *
@@ -69,19 +229,21 @@ public class Database {
     public static ArrayDeque<String> getTaskNames() {
         ArrayDeque<String> taskNames = new ArrayDeque<>();
 
-        try (Connection conn = DriverManager.getConnection(url, user, password);
-             Statement stmt = conn.createStatement()) {
-
-            // SQL query to retrieve all task names
-            String sql = "SELECT name FROM task";
+        try {
+            connections.read(conn -> {
+                // SQL query to retrieve all task names
+                String sql = "SELECT name FROM task";
 
-            // Execute the query
-            ResultSet rs = stmt.executeQuery(sql);
+                // Execute the query
+                try (ResultSet rs = conn.prepare(sql).executeQuery()) {
 
-            // Iterate through the result set and add task names to the deque
-            while (rs.next()) {
-                taskNames.add(rs.getString("name"));
-            }
+                    // Iterate through the result set and add task names to the deque
+                    while (rs.next()) {
+                        taskNames.add(rs.getString("name"));
+                    }
+                }
+                return taskNames;
+            });
 
         } catch (SQLException e) {
             // Handle any errors
@@ -91,102 +253,288 @@ public class Database {
     }
 
     /**
-     * Function used to retrieve the name and description values from all rows in the "category" table.
+     * Function used to retrieve one page of tasks, ordered by name. Pages are
+     * read by seeking past the last name of the previous page in the unique index
+     * on "name", so fetching a page costs the same no matter how far into the table it is.
      *
-     * @return a HashMap of categories
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param pageSize the largest number of task names to return
+     * @return the page of tasks and the cursor of the next page
+     * @throws IllegalArgumentException if the cursor or page size is not valid
      */
-    public static HashMap<String, String> getCategories() {
-        HashMap<String, String> categories = new HashMap<>();
-
-        try (Connection conn = DriverManager.getConnection(url, user, password);
-             Statement stmt = conn.createStatement()) {
-
-            // SQL query to retrieve all task names
-            String sql = "SELECT name, description FROM category";
+    public static TaskPage getTaskPage(String cursor, int pageSize) {
+        if (pageSize < 1) throw new IllegalArgumentException("Page size must be positive");
+        String after = cursor == null ? null : TaskPage.nameBefore(cursor);
+        ArrayDeque<TaskSummary> tasks = new ArrayDeque<>();
+
+        try {
+            connections.read(conn -> {
+                // SQL query seeking past the previous page, one extra row tells if there is a next page
+                String sql = after == null
+                        ? "SELECT task_id, name FROM task ORDER BY name LIMIT ?"
+                        : "SELECT task_id, name FROM task WHERE name > ? ORDER BY name LIMIT ?";
+                PreparedStatement preparedStatement = conn.prepare(sql);
+                int index = 1;
+                if (after != null) preparedStatement.setString(index++, after);
+                preparedStatement.setInt(index, pageSize + 1);
+
+                // Execute the query
+                try (ResultSet rs = preparedStatement.executeQuery()) {
+                    while (rs.next()) {
+                        tasks.add(RowMapper.toTaskSummary(rs));
+                    }
+                }
+                return null;
+            });
 
-            // Execute the query
-            ResultSet rs = stmt.executeQuery(sql);
+        } catch (SQLException e) {
+            // Handle any errors
+            e.printStackTrace();
+        }
 
-            // Iterate through the result set and add task names to the deque
-            while (rs.next()) {
-                String name = rs.getString("name");
-                String description = rs.getString("description");
-                categories.put(name, description);
-            }
+        if (tasks.size() <= pageSize) return new TaskPage(tasks, null);
+        tasks.removeLast();
+        return new TaskPage(tasks, TaskPage.cursorAfter(tasks.getLast().name()));
+    }
 
+    /**
+     * Function used to retrieve the name and description values from all rows in the "category" table.
+     * The values are read from the in-memory category cache.
+     *
+     * @return a HashMap of categories
+     */
+    public static HashMap<String, String> getCategories() {
+        try {
+            return loadedCategoryCache().all();
         } catch (SQLException e) {
             // Handle any errors
             e.printStackTrace();
         }
-        return categories;
+        return new HashMap<>();
     }
 
     /**
      * Function used to retrieve name values in the "task" table using a search query.
+     * A task matches if its name or category contains the query, ignoring the case of
+     * ASCII letters. The query is looked up in the in-memory trigram index, and the
+     * results of recent searches are kept until a task is added or deleted. A query
+     * extending a recent one is answered by narrowing down the earlier results.
      *
      * @param query the query to use when searching the database
      * @return a Deque of task names matching the query
      */
     public static ArrayDeque<String> getSearchedTaskNames(String query) {
-        ArrayDeque<String> taskNames = new ArrayDeque<>();
-        PreparedStatement preparedStatement;
-
-        try (Connection conn = DriverManager.getConnection(url, user, password)) {
-            // SQL query to retrieve all task names
-            String sql = "SELECT name FROM task WHERE name LIKE ? OR category LIKE ?";
-            // prepared statement to use query variable
-            preparedStatement = conn.prepareStatement(sql);
-            String likePattern = "%" + query + "%";
-            preparedStatement.setString(1, likePattern);
-            preparedStatement.setString(2, likePattern);
-
-            // Execute the query
-            ResultSet rs = preparedStatement.executeQuery();
-
-            // Iterate through the result set and add task names to the deque
-            while (rs.next()) {
-                taskNames.add(rs.getString("name"));
-            }
+        return names(getSearchedTasks(query));
+    }
 
+    /**
+     * Function used to retrieve the ids and names of the tasks matching a search
+     * query, looked up in the same way as {@link #getSearchedTaskNames(String)}.
+     *
+     * @param query the query to use when searching the database
+     * @return a Deque of the tasks matching the query
+     */
+    public static ArrayDeque<TaskSummary> getSearchedTasks(String query) {
+        try {
+            return new ArrayDeque<>(taskSearchCache.get(query,
+                    () -> loadedTaskIndex().search(query),
+                    previous -> loadedTaskIndex().refine(previous, query)));
         } catch (SQLException e) {
             // Handle any errors
             e.printStackTrace();
         }
-        return taskNames;
+        return new ArrayDeque<>();
     }
 
     /**
-     * Function used to retrieve name values in the "task" table using a search query.
+     * Function used to retrieve the tasks whose name or category contains words
+     * close to every word of a query, so that misspelled queries still find
+     * their tasks. Each word may differ by up to a given number of inserted,
+     * deleted or replaced characters, fewer for short words.
+     *
+     * @param query the query to use when searching the tasks
+     * @param maxDistance the largest number of edits allowed per word, between 0 and 2
+     * @return a Deque of the matching tasks, closest first
+     */
+    public static ArrayDeque<TaskSummary> getFuzzyTasks(String query, int maxDistance) {
+        try {
+            return new ArrayDeque<>(loadedFuzzyTaskIndex().search(query, maxDistance));
+        } catch (SQLException e) {
+            // Handle any errors
+            e.printStackTrace();
+        }
+        return new ArrayDeque<>();
+    }
+
+    /**
+     * Function used to search the name, information and category of all tasks
+     * using the full-text index. Words in the query are matched as prefixes,
+     * text inside double quotes is matched as a phrase, and a task has to
+     * match every part of the query, e.g. {@code meet "project plan"}.
      *
      * @param query the query to use when searching the database
      * @return a Deque of task names matching the query
      */
+    public static ArrayDeque<String> searchTasks(String query) {
+        return names(getMatchingTasks(FullTextIndex.toMatchQuery(query), 0));
+    }
+
+    /**
+     * Function used to retrieve the names of the tasks best matching a search
+     * query, in the same way as {@link #getRankedTasks(String, int)}.
+     *
+     * @param query the query to use when searching the database
+     * @param limit the largest number of tasks to return
+     * @return a Deque of task names, best match first
+     */
+    public static ArrayDeque<String> getRankedTaskNames(String query, int limit) {
+        return names(getRankedTasks(query, limit));
+    }
+
+    /**
+     * Function used to retrieve the tasks best matching a search query, using the
+     * full-text index over the name, information and category of every task. The
+     * query is matched as in {@link #searchTasks(String)}, and the matches are
+     * ranked by BM25, weighing words found in the name the most and words found
+     * in the information the least. Only the best matches are kept while ranking,
+     * so the full set of matches is never sorted or returned.
+     *
+     * @param query the query to use when searching the database
+     * @param limit the largest number of tasks to return
+     * @return a Deque of the matching tasks, best match first
+     */
+    public static ArrayDeque<TaskSummary> getRankedTasks(String query, int limit) {
+        if (limit < 1) throw new IllegalArgumentException("Limit must be positive!");
+        return getMatchingTasks(FullTextIndex.toMatchQuery(query), limit);
+    }
+
+    /**
+     * Private function used to retrieve the ids and names of the tasks matching
+     * a query against the full-text index.
+     *
+     * @param matchQuery the FTS5 query to run, or null to match nothing
+     * @param limit the number of best matches to return, or 0 for every match in index order
+     * @return a Deque of the tasks matching the query
+     */
+    private static ArrayDeque<TaskSummary> getMatchingTasks(String matchQuery, int limit) {
+        ArrayDeque<TaskSummary> tasks = new ArrayDeque<>();
+        if (matchQuery == null) return tasks;
+
+        try {
+            connections.read(conn -> {
+                // SQL query to retrieve the ids and names of matching tasks from the index, with
+                // a limit SQLite sorts into a bounded list holding only the best matches so far
+                String sql = "SELECT rowid, name FROM task_fts WHERE task_fts MATCH ?";
+                if (limit > 0) sql += " ORDER BY " + FullTextIndex.RANK + " LIMIT ?";
+                // prepared statement to use query variable
+                PreparedStatement preparedStatement = conn.prepare(sql);
+                preparedStatement.setString(1, matchQuery);
+                if (limit > 0) preparedStatement.setInt(2, limit);
+
+                // Execute the query
+                try (ResultSet rs = preparedStatement.executeQuery()) {
+                    // Iterate through the result set and add tasks to the deque
+                    while (rs.next()) {
+                        tasks.add(RowMapper.toTaskSummary(rs));
+                    }
+                }
+                return tasks;
+            });
+
+        } catch (SQLException e) {
+            // Handle any errors
+            e.printStackTrace();
+        }
+        return tasks;
+    }
+
+    /**
+     * Private function used to get the names of a list of tasks.
+     *
+     * @param tasks the tasks
+     * @return a Deque of the task names, in the same order
+     */
+    private static ArrayDeque<String> names(Collection<TaskSummary> tasks) {
+        ArrayDeque<String> taskNames = new ArrayDeque<>();
+        for (TaskSummary task : tasks) {
+            taskNames.add(task.name());
+        }
+        return taskNames;
+    }
+
+    /**
+     * Function used to retrieve categories whose name contains a search query. Like the
+     * SQL LIKE operator, the match ignores the case of ASCII letters. The categories
+     * are searched in the in-memory category cache, and the results of recent
+     * searches are kept until a category is added or deleted.
+     *
+     * @param query the query to use when searching the categories
+     * @return a HashMap of the categories matching the query
+     */
     public static HashMap<String, String> getSearchedCategories(String query) {
-        HashMap<String, String> categories = new HashMap<>();
-        PreparedStatement preparedStatement;
-
-        try (Connection conn = DriverManager.getConnection(url, user, password)) {
-            // SQL query to retrieve all categories
-            String sql = "SELECT name, description FROM category WHERE name LIKE ?";
-            // prepared statement to use query variable
-            preparedStatement = conn.prepareStatement(sql);
-            String likePattern = "%" + query + "%";
-            preparedStatement.setString(1, likePattern);
-
-            // Execute the query
-            ResultSet rs = preparedStatement.executeQuery();
-
-            // Iterate through the result set and add task names to the deque
-            while (rs.next()) {
-                String name = rs.getString("name");
-                String description = rs.getString("description");
-                categories.put(name, description);
-            }
+        try {
+            return new HashMap<>(categorySearchCache.get(query,
+                    () -> matchingCategories(loadedCategoryCache().all(), query),
+                    previous -> matchingCategories(new HashMap<>(previous), query)));
+        } catch (SQLException e) {
+            // Handle any errors
+            e.printStackTrace();
+        }
+        return new HashMap<>();
+    }
 
+    /**
+     * Function used to retrieve the names of the categories starting with a prefix,
+     * ignoring the case of ASCII letters. The names are looked up in a prefix trie
+     * kept in the in-memory category cache, for autocompleting category names.
+     *
+     * @param prefix the prefix typed so far
+     * @param limit the largest number of names to return
+     * @return a List of the matching names, in alphabetical order ignoring case
+     */
+    public static List<String> getCategoryNamesStartingWith(String prefix, int limit) {
+        if (limit < 1) throw new IllegalArgumentException("Limit must be positive!");
+        try {
+            return loadedCategoryCache().startingWith(prefix, limit);
         } catch (SQLException e) {
             // Handle any errors
             e.printStackTrace();
         }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Function used to retrieve the categories whose name contains words close to
+     * every word of a query, in the same way as {@link #getFuzzyTasks(String, int)}.
+     *
+     * @param query the query to use when searching the categories
+     * @param maxDistance the largest number of edits allowed per word, between 0 and 2
+     * @return a LinkedHashMap of the matching categories, closest first
+     */
+    public static LinkedHashMap<String, String> getFuzzyCategories(String query, int maxDistance) {
+        LinkedHashMap<String, String> categories = new LinkedHashMap<>();
+        try {
+            List<String> names = loadedFuzzyCategoryIndex().search(query, maxDistance);
+            HashMap<String, String> descriptions = loadedCategoryCache().all();
+            for (String name : names) {
+                if (descriptions.containsKey(name)) categories.put(name, descriptions.get(name));
+            }
+        } catch (SQLException e) {
+            // Handle any errors
+            e.printStackTrace();
+        }
+        return categories;
+    }
+
+    /**
+     * Private function used to keep the categories whose name contains a query.
+     *
+     * @param categories the categories to search, which are modified
+     * @param query the query to use when searching the categories
+     * @return the categories, with the ones not matching the query removed
+     */
+    private static HashMap<String, String> matchingCategories(HashMap<String, String> categories, String query) {
+        categories.keySet().removeIf(name -> !TrigramIndex.containsIgnoreCase(name, query));
         return categories;
     }
 
@@ -194,98 +542,280 @@ public class Database {
      * Function used to retrieve all values from a specified row in the "task" table.
      *
      * @param taskName the name of the task to retrieve
-     * @return a List containing row values of a task
+     * @return a List containing row values of a task, empty if the task does not exist
      */
     public static List<String> getTask(String taskName) {
-        List<String> task = new ArrayList<>();
-        PreparedStatement preparedStatement;
-
-        try (Connection conn = DriverManager.getConnection(url, user, password)) {
-            // SQL query to retrieve all task names
-            String sql = "SELECT * FROM task WHERE name = ?";
-            // prepared statement to use query variable
-            preparedStatement = conn.prepareStatement(sql);
-            preparedStatement.setString(1, taskName);
-
-            // Execute the query
-            ResultSet rs = preparedStatement.executeQuery();
-
-            if (rs.next()) {
-                // Get the values of all columns in the row
-                ResultSetMetaData metaData = rs.getMetaData();
-                int columnCount = metaData.getColumnCount();
-                for (int i = 1; i <= columnCount; i++) {
-                    task.add(rs.getString(i));
+        return findTask(taskName).map(Task::toValues).orElseGet(ArrayList::new);
+    }
+
+    /**
+     * Function used to retrieve a task by name.
+     *
+     * @param taskName the name of the task to retrieve
+     * @return the task, or an empty Optional if the task does not exist
+     */
+    public static Optional<Task> findTask(String taskName) {
+        try {
+            return connections.read(conn -> {
+                // SQL query to retrieve the task with the specified name
+                String sql = "SELECT " + RowMapper.TASK_COLUMNS + " FROM task WHERE name = ?";
+                // prepared statement to use query variable
+                PreparedStatement preparedStatement = conn.prepare(sql);
+                preparedStatement.setString(1, taskName);
+
+                // Execute the query
+                try (ResultSet rs = preparedStatement.executeQuery()) {
+                    return rs.next() ? Optional.of(RowMapper.toTask(rs)) : Optional.<Task>empty();
+                }
+            });
+
+        } catch (SQLException e) {
+            // Handle any errors
+            e.printStackTrace();
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Function used to retrieve a task by id.
+     *
+     * @param taskId the id of the task to retrieve
+     * @return the task, or an empty Optional if the task does not exist
+     */
+    public static Optional<Task> findTask(long taskId) {
+        try {
+            return connections.read(conn -> {
+                // SQL query to retrieve the task with the specified id
+                String sql = "SELECT " + RowMapper.TASK_COLUMNS + " FROM task WHERE task_id = ?";
+                // prepared statement to use query variable
+                PreparedStatement preparedStatement = conn.prepare(sql);
+                preparedStatement.setLong(1, taskId);
+
+                // Execute the query
+                try (ResultSet rs = preparedStatement.executeQuery()) {
+                    return rs.next() ? Optional.of(RowMapper.toTask(rs)) : Optional.<Task>empty();
+                }
+            });
+
+        } catch (SQLException e) {
+            // Handle any errors
+            e.printStackTrace();
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Function used to retrieve every row in the "task" table, ordered by name.
+     *
+     * @return a List of all tasks
+     */
+    public static List<Task> getAllTasks() {
+        List<Task> tasks = new ArrayList<>();
+
+        try {
+            connections.read(conn -> {
+                // SQL query to retrieve all tasks
+                String sql = "SELECT " + RowMapper.TASK_COLUMNS + " FROM task ORDER BY name";
+
+                // Execute the query
+                try (ResultSet rs = conn.prepare(sql).executeQuery()) {
+                    while (rs.next()) {
+                        tasks.add(RowMapper.toTask(rs));
+                    }
                 }
+                return null;
+            });
+
+        } catch (SQLException e) {
+            // Handle any errors
+            e.printStackTrace();
+        }
+        return tasks;
+    }
+
+    /**
+     * Function used to stream every row in the "task" table, ordered by name.
+     * Rows are read from the database as the stream is consumed, so the table
+     * never has to fit in memory. The stream holds one of the pooled reader
+     * connections until it is closed, so it must be closed, e.g. by using it in a
+     * try-with-resources statement, even if it is not consumed to the end. Every
+     * stream left open takes a reader away from all other reads, which wait for
+     * a free reader once the pool is used up.
+     *
+     * @param fetchSize the number of rows the driver should fetch at a time
+     * @return a Stream of all tasks
+     * @throws IllegalArgumentException if the fetch size is not positive
+     * @throws IllegalStateException if the tasks could not be read
+     */
+    public static Stream<Task> streamTasks(int fetchSize) {
+        if (fetchSize < 1) throw new IllegalArgumentException("Fetch size must be positive");
+
+        try {
+            PooledConnection conn = connections.borrow();
+            try {
+                // SQL query to retrieve all tasks
+                String sql = "SELECT " + RowMapper.TASK_COLUMNS + " FROM task ORDER BY name";
+                PreparedStatement preparedStatement = conn.prepare(sql);
+                preparedStatement.setFetchSize(fetchSize);
+
+                RowCursor<Task> cursor = new RowCursor<>(connections, conn, preparedStatement.executeQuery(),
+                        RowMapper::toTask);
+                return StreamSupport.stream(cursor, false).onClose(cursor::close);
+            } catch (SQLException | RuntimeException e) {
+                connections.release(conn);
+                throw e;
             }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not read the tasks", e);
+        }
+    }
+
+    /**
+     * Function used to retrieve the tasks due between two dates, both included,
+     * ordered by due date. The dates are looked up in the due date index.
+     *
+     * @param from the first due date to include
+     * @param to the last due date to include
+     * @return a List of the tasks due in the range
+     */
+    public static List<Task> getTasksDueBetween(LocalDate from, LocalDate to) {
+        return getTasksByDueDate("due_date BETWEEN ? AND ? ORDER BY due_date, task_id",
+                from.toEpochDay(), to.toEpochDay());
+    }
+
+    /**
+     * Function used to retrieve the tasks that were due before a date,
+     * ordered by due date, oldest first.
+     *
+     * @param today the date to compare the due dates to, usually the current date
+     * @return a List of the overdue tasks
+     */
+    public static List<Task> getOverdueTasks(LocalDate today) {
+        return getTasksByDueDate("due_date < ? ORDER BY due_date, task_id", today.toEpochDay());
+    }
+
+    /**
+     * Function used to retrieve the next tasks due on or after a date,
+     * ordered by due date.
+     *
+     * @param from the first due date to include, usually the current date
+     * @param limit the largest number of tasks to return
+     * @return a List of at most limit tasks
+     */
+    public static List<Task> getNextDueTasks(LocalDate from, int limit) {
+        return getTasksByDueDate("due_date >= ? ORDER BY due_date, task_id LIMIT ?", from.toEpochDay(), limit);
+    }
+
+    /**
+     * Private function used to retrieve the tasks matching a condition on the due date.
+     *
+     * @param condition the SQL condition and ordering following the WHERE keyword
+     * @param parameters the values of the parameters in the condition
+     * @return a List of the matching tasks
+     */
+    private static List<Task> getTasksByDueDate(String condition, long... parameters) {
+        List<Task> tasks = new ArrayList<>();
+
+        try {
+            connections.read(conn -> {
+                // SQL query to retrieve the matching tasks
+                String sql = "SELECT " + RowMapper.TASK_COLUMNS + " FROM task WHERE " + condition;
+                PreparedStatement preparedStatement = conn.prepare(sql);
+                for (int i = 0; i < parameters.length; i++) {
+                    preparedStatement.setLong(i + 1, parameters[i]);
+                }
+
+                // Execute the query
+                try (ResultSet rs = preparedStatement.executeQuery()) {
+                    while (rs.next()) {
+                        tasks.add(RowMapper.toTask(rs));
+                    }
+                }
+                return null;
+            });
 
         } catch (SQLException e) {
             // Handle any errors
             e.printStackTrace();
         }
-        return task;
+        return tasks;
     }
 
     /**
-     * Function used to retrieve a category from the database by name.
+     * Function used to retrieve a category by name, from the in-memory category cache.
      *
      * @param categoryName the name of the category to get
      * @return list of column values from the row of the category
      */
     public static List<String> getCategory(String categoryName) {
-        List<String> category = new ArrayList<>();
-        PreparedStatement preparedStatement;
-
-        try (Connection conn = DriverManager.getConnection(url, user, password)) {
-            // SQL query to get a category by name
-            String sql = "SELECT * FROM category WHERE name = ?";
-            // prepared statement to use query variable
-            preparedStatement = conn.prepareStatement(sql);
-            preparedStatement.setString(1, categoryName);
-
-            // Execute the query
-            ResultSet rs = preparedStatement.executeQuery();
-
-            if (rs.next()) {
-                // Get the values of all columns in the row
-                ResultSetMetaData metaData = rs.getMetaData();
-                int columnCount = metaData.getColumnCount();
-                for (int i = 1; i <= columnCount; i++) {
-                    category.add(rs.getString(i));
-                }
-            }
+        return findCategory(categoryName).map(Category::toValues).orElseGet(ArrayList::new);
+    }
 
+    /**
+     * Function used to retrieve a category by name, from the in-memory category cache.
+     *
+     * @param categoryName the name of the category to get
+     * @return the category, or an empty Optional if the category does not exist
+     */
+    public static Optional<Category> findCategory(String categoryName) {
+        try {
+            return Optional.ofNullable(loadedCategoryCache().get(categoryName));
         } catch (SQLException e) {
             // Handle any errors
             e.printStackTrace();
         }
-        return category;
+        return Optional.empty();
+    }
+
+    /**
+     * Function used to retrieve every category, ordered by name, from the
+     * in-memory category cache.
+     *
+     * @return a List of all categories
+     */
+    public static List<Category> getAllCategories() {
+        try {
+            return loadedCategoryCache().categories();
+        } catch (SQLException e) {
+            // Handle any errors
+            e.printStackTrace();
+        }
+        return new ArrayList<>();
     }
 
     /**
      * Function used to add a new row to the "task" table.
      *
-     * @param taskValues a list of values to add to the row
+     * @param taskValues a list of values to add to the row, with the due date written as yyyy-MM-dd
      */
     public static void addTask(List<String> taskValues) {
-        PreparedStatement preparedStatement;
-
         // Handle invalid input
         if (!categoryExists(taskValues.get(2))) throw new IllegalArgumentException("Category does not exist!");
+        if (Task.parseDueDate(taskValues.get(3)) == null) {
+            throw new IllegalArgumentException("Due date must be a valid date written as yyyy-MM-dd!");
+        }
 
-        try (Connection conn = DriverManager.getConnection(url, user, password)) {
-            // SQL query to insert a new row into the task table
-            String sql = "INSERT INTO task (name, information, category, due_date) VALUES (?, ?, ?, ?)";
-            // prepared statement to use query variable
-            preparedStatement = conn.prepareStatement(sql);
-
-            // Set values from the list
-            for (int i = 0; i < taskValues.size(); i++) {
-                preparedStatement.setString(i + 1, taskValues.get(i));
-            }
-
-            // Execute the update
-            preparedStatement.executeUpdate();
+        try {
+            connections.write(conn -> {
+                // SQL query to insert a new row into the task table
+                String sql = "INSERT INTO task (name, information, category, due_date) VALUES (?, ?, ?, ?) "
+                        + "RETURNING task_id";
+                // prepared statement to use query variable
+                PreparedStatement preparedStatement = conn.prepare(sql);
+                // Set values from the list
+                setTaskValues(preparedStatement, taskValues);
+
+                // Execute the update
+                try (ResultSet rs = preparedStatement.executeQuery()) {
+                    rs.next();
+                    taskIndex.add(rs.getLong(1), taskValues.get(0), taskValues.get(2));
+                    fuzzyTaskIndex.add(new TaskSummary(rs.getLong(1), taskValues.get(0)),
+                            taskValues.get(0), taskValues.get(2));
+                }
+                categoryCache.taskAdded(taskValues.get(2));
+                tasksChanged();
+                return null;
+            });
 
         } catch (SQLiteException e) {
             // Handle constraint violation
@@ -302,24 +832,27 @@ public class Database {
      * @param categoryValues a list of values to add to the row
      */
     public static void addCategory(List<String> categoryValues) {
-        PreparedStatement preparedStatement;
-
         // Check if the category already exists
         if (categoryExists(categoryValues.get(0))) throw new IllegalArgumentException("Category name must be unique!");
 
-        try (Connection conn = DriverManager.getConnection(url, user, password)) {
-            // SQL query to insert a new row into the task table
-            String sql = "INSERT INTO category (name, description) VALUES (?, ?)";
-            // prepared statement to use query variable
-            preparedStatement = conn.prepareStatement(sql);
-
-            // Set values from the list
-            for (int i = 0; i < categoryValues.size(); i++) {
-                preparedStatement.setString(i + 1, categoryValues.get(i));
-            }
+        try {
+            connections.write(conn -> {
+                // SQL query to insert a new row into the task table
+                String sql = "INSERT INTO category (name, description) VALUES (?, ?)";
+                // prepared statement to use query variable
+                PreparedStatement preparedStatement = conn.prepare(sql);
+                // Set values from the list
+                for (int i = 0; i < categoryValues.size(); i++) {
+                    preparedStatement.setString(i + 1, categoryValues.get(i));
+                }
 
-            // Execute the update
-            preparedStatement.executeUpdate();
+                // Execute the update
+                preparedStatement.executeUpdate();
+                categoryCache.categoryAdded(categoryValues.get(0), categoryValues.get(1));
+                fuzzyCategoryIndex.add(categoryValues.get(0), categoryValues.get(0));
+                categoriesChanged();
+                return null;
+            });
 
         } catch (SQLException e) {
             // Handle any errors
@@ -327,23 +860,223 @@ public class Database {
         }
     }
 
+    /**
+     * Function used to add many rows to the "task" table at once. All rows are
+     * inserted in a single transaction using one batched statement, and the
+     * existence of categories is checked in the category cache. Rows whose
+     * category does not exist, whose due date is not valid or whose name is
+     * already taken are skipped.
+     *
+     * @param tasks lists of values to add, in the same order as for addTask()
+     * @return the result for each row, in the same order as the rows
+     */
+    public static List<InsertResult> addTasks(Collection<List<String>> tasks) {
+        List<InsertResult> results = new ArrayList<>(Collections.nCopies(tasks.size(), InsertResult.MISSING_CATEGORY));
+        if (tasks.isEmpty()) return results;
+
+        try {
+            CategoryCache cache = loadedCategoryCache();
+            long[] ids = new long[tasks.size()];
+
+            // Hold the writer until the caches are updated, so that no other write comes in between
+            connections.write(writer -> {
+                connections.transaction(conn -> {
+                    // SQL query to insert new rows, rows with a name already in use are ignored
+                    String sql = "INSERT OR IGNORE INTO task (name, information, category, due_date) "
+                            + "VALUES (?, ?, ?, ?)";
+                    PreparedStatement preparedStatement = conn.prepare(sql);
+                    List<Integer> batched = new ArrayList<>();
+
+                    int row = 0;
+                    for (List<String> taskValues : tasks) {
+                        if (!cache.contains(taskValues.get(2))) {
+                            results.set(row, InsertResult.MISSING_CATEGORY);
+                        } else if (Task.parseDueDate(taskValues.get(3)) == null) {
+                            results.set(row, InsertResult.INVALID_DUE_DATE);
+                        } else {
+                            setTaskValues(preparedStatement, taskValues);
+                            preparedStatement.addBatch();
+                            batched.add(row);
+                        }
+                        row++;
+                    }
+
+                    // Execute the batch, an ignored row reports that no rows were changed
+                    int[] counts = batch(preparedStatement);
+                    for (int i = 0; i < counts.length; i++) {
+                        results.set(batched.get(i), counts[i] > 0 ? InsertResult.INSERTED : InsertResult.DUPLICATE);
+                    }
+
+                    // Look up the ids of the new rows for the search indexes
+                    PreparedStatement idStatement = conn.prepare("SELECT task_id FROM task WHERE name = ?");
+                    boolean indexed = taskIndex.isLoaded() || fuzzyTaskIndex.isLoaded();
+                    row = 0;
+                    for (List<String> taskValues : tasks) {
+                        if (results.get(row) == InsertResult.INSERTED && indexed) {
+                            idStatement.setString(1, taskValues.get(0));
+                            try (ResultSet rs = idStatement.executeQuery()) {
+                                if (rs.next()) ids[row] = rs.getLong(1);
+                            }
+                        }
+                        row++;
+                    }
+                    return null;
+                });
+
+                // Update the caches once the rows are committed
+                int row = 0;
+                for (List<String> taskValues : tasks) {
+                    if (results.get(row) == InsertResult.INSERTED) {
+                        cache.taskAdded(taskValues.get(2));
+                        taskIndex.add(ids[row], taskValues.get(0), taskValues.get(2));
+                        fuzzyTaskIndex.add(new TaskSummary(ids[row], taskValues.get(0)),
+                                taskValues.get(0), taskValues.get(2));
+                    }
+                    row++;
+                }
+                tasksChanged();
+                return null;
+            });
+
+        } catch (SQLException e) {
+            // Handle any errors, nothing has been inserted
+            e.printStackTrace();
+            throw new IllegalStateException("Tasks could not be added!", e);
+        }
+        return results;
+    }
+
+    /**
+     * Private function used to set the parameters of a statement inserting a
+     * task, storing the due date as the number of days since 1970-01-01.
+     *
+     * @param preparedStatement the statement to set the parameters of
+     * @param taskValues the name, information, category and due date of the task
+     * @throws SQLException if a parameter could not be set
+     */
+    private static void setTaskValues(PreparedStatement preparedStatement, List<String> taskValues)
+            throws SQLException {
+        preparedStatement.setString(1, taskValues.get(0));
+        preparedStatement.setString(2, taskValues.get(1));
+        preparedStatement.setString(3, taskValues.get(2));
+        preparedStatement.setLong(4, Task.parseDueDate(taskValues.get(3)).toEpochDay());
+    }
+
+    /**
+     * Function used to add many rows to the "category" table at once, in a
+     * single transaction using one batched statement. Rows whose name is
+     * already taken are skipped.
+     *
+     * @param categories lists of values to add, in the same order as for addCategory()
+     * @return the result for each row, in the same order as the rows
+     */
+    public static List<InsertResult> addCategories(Collection<List<String>> categories) {
+        List<InsertResult> results = new ArrayList<>(categories.size());
+        if (categories.isEmpty()) return results;
+
+        try {
+            // Hold the writer until the cache is updated, so that no other write comes in between
+            connections.write(writer -> {
+                connections.transaction(conn -> {
+                    // SQL query to insert new rows, rows with a name already in use are ignored
+                    String sql = "INSERT OR IGNORE INTO category (name, description) VALUES (?, ?)";
+                    PreparedStatement preparedStatement = conn.prepare(sql);
+
+                    for (List<String> categoryValues : categories) {
+                        for (int i = 0; i < categoryValues.size(); i++) {
+                            preparedStatement.setString(i + 1, categoryValues.get(i));
+                        }
+                        preparedStatement.addBatch();
+                    }
+
+                    // Execute the batch, an ignored row reports that no rows were changed
+                    for (int count : batch(preparedStatement)) {
+                        results.add(count > 0 ? InsertResult.INSERTED : InsertResult.DUPLICATE);
+                    }
+                    return null;
+                });
+
+                // Add the new categories to the cache once the rows are committed
+                int row = 0;
+                for (List<String> categoryValues : categories) {
+                    if (results.get(row++) == InsertResult.INSERTED) {
+                        categoryCache.categoryAdded(categoryValues.get(0), categoryValues.get(1));
+                        fuzzyCategoryIndex.add(categoryValues.get(0), categoryValues.get(0));
+                    }
+                }
+                categoriesChanged();
+                return null;
+            });
+
+        } catch (SQLException e) {
+            // Handle any errors, nothing has been inserted
+            e.printStackTrace();
+            throw new IllegalStateException("Categories could not be added!", e);
+        }
+        return results;
+    }
+
+    /**
+     * Private function used to execute the batch of a cached statement, making
+     * sure the batch is cleared even if it fails so the statement can be reused.
+     *
+     * @param preparedStatement the statement holding the batch
+     * @return the update count of each batched row
+     * @throws SQLException if the batch could not be executed
+     */
+    private static int[] batch(PreparedStatement preparedStatement) throws SQLException {
+        try {
+            return preparedStatement.executeBatch();
+        } finally {
+            preparedStatement.clearBatch();
+        }
+    }
+
     /**
      * Function used to delete a specified row to the "task" table.
      *
      * @param taskName the name of the task to delete
      */
     public static void deleteTask(String taskName) {
-        PreparedStatement preparedStatement;
+        deleteTaskWhere("name = ?", taskName);
+    }
 
-        try (Connection conn = DriverManager.getConnection(url, user, password)) {
-            // SQL query to delete a task by name
-            String sql = "DELETE FROM task WHERE name = ?";
-            // prepared statement to use query variable
-            preparedStatement = conn.prepareStatement(sql);
-            preparedStatement.setString(1, taskName);
+    /**
+     * Function used to delete a specified row to the "task" table by id.
+     *
+     * @param taskId the id of the task to delete
+     */
+    public static void deleteTask(long taskId) {
+        deleteTaskWhere("task_id = ?", taskId);
+    }
 
-            // Execute the update
-            preparedStatement.executeUpdate();
+    /**
+     * Private function used to delete the task matching a condition on one of
+     * its keys, and release its reference to its category.
+     *
+     * @param condition the SQL condition selecting the task, with one parameter
+     * @param key the value of the parameter
+     */
+    private static void deleteTaskWhere(String condition, Object key) {
+        try {
+            connections.write(conn -> {
+                // SQL query to delete a task, returning its category
+                String sql = "DELETE FROM task WHERE " + condition + " RETURNING task_id, category, name";
+                // prepared statement to use query variable
+                PreparedStatement preparedStatement = conn.prepare(sql);
+                preparedStatement.setObject(1, key);
+
+                // Execute the update and release the task's reference to its category
+                try (ResultSet rs = preparedStatement.executeQuery()) {
+                    if (rs.next()) {
+                        taskIndex.remove(rs.getLong(1));
+                        fuzzyTaskIndex.remove(new TaskSummary(rs.getLong(1), rs.getString(3)));
+                        categoryCache.taskDeleted(rs.getString(2));
+                        tasksChanged();
+                    }
+                }
+                return null;
+            });
 
         } catch (SQLException e) {
             // Handle any errors
@@ -353,25 +1086,33 @@ public class Database {
 
     /**
      * Function used to delete a specified row to the "category" table.
+     * The reference check and the delete are made while holding the
+     * writer connection, so no task can be added to the category in between.
      *
      * @param categoryName the name of the task to delete
+     * @throws IllegalStateException if the category is referenced by a task
      */
     public static void deleteCategory(String categoryName) {
-        PreparedStatement preparedStatement;
-
-        // Check if category is referenced
-        if (isCategoryReferenced(categoryName))
-            throw new IllegalStateException("Category is referenced by an existing task and cannot be deleted!");
-
-        try (Connection conn = DriverManager.getConnection(url, user, password)) {
-            // SQL query to delete a task by name
-            String sql = "DELETE FROM category WHERE name = ?";
-            // prepared statement to use query variable
-            preparedStatement = conn.prepareStatement(sql);
-            preparedStatement.setString(1, categoryName);
-
-            // Execute the update
-            preparedStatement.executeUpdate();
+        try {
+            connections.write(conn -> {
+                // Check if category is referenced
+                if (loadedCategoryCache().isReferenced(categoryName))
+                    throw new IllegalStateException("Category is referenced by an existing task and cannot be deleted!");
+
+                // SQL query to delete a task by name
+                String sql = "DELETE FROM category WHERE name = ?";
+                // prepared statement to use query variable
+                PreparedStatement preparedStatement = conn.prepare(sql);
+                preparedStatement.setString(1, categoryName);
+
+                // Execute the update, the caches only change if a row was deleted
+                if (preparedStatement.executeUpdate() > 0) {
+                    categoryCache.categoryDeleted(categoryName);
+                    fuzzyCategoryIndex.remove(categoryName);
+                    categoriesChanged();
+                }
+                return null;
+            });
 
         } catch (SQLException e) {
             // Handle any errors
@@ -386,19 +1127,18 @@ public class Database {
      * @return true if the task exists, false otherwise
      */
     public static boolean taskExists(String taskName) {
-        PreparedStatement preparedStatement;
-
-        try (Connection conn = DriverManager.getConnection(url, user, password)) {
-            // SQL query to check if category exists
-            String sql = "SELECT 1 FROM task WHERE name = ?";
-            preparedStatement = conn.prepareStatement(sql);
-            preparedStatement.setString(1, taskName);
-
-            // Execute the query
-            ResultSet rs = preparedStatement.executeQuery();
-
-            // Check if a result was returned
-            return rs.next();
+        try {
+            return connections.read(conn -> {
+                // SQL query to check if category exists
+                String sql = "SELECT 1 FROM task WHERE name = ?";
+                PreparedStatement preparedStatement = conn.prepare(sql);
+                preparedStatement.setString(1, taskName);
+
+                // Execute the query and check if a result was returned
+                try (ResultSet rs = preparedStatement.executeQuery()) {
+                    return rs.next();
+                }
+            });
 
         } catch (SQLException e) {
             // Handle any errors
@@ -408,26 +1148,15 @@ public class Database {
     }
 
     /**
-     * Function used to check if a category exists in the "category" table.
+     * Function used to check if a category exists in the "category" table,
+     * using the in-memory category cache.
      *
      * @param categoryName the name of the category to check
      * @return true if the category exists, false otherwise
      */
     public static boolean categoryExists(String categoryName) {
-        PreparedStatement preparedStatement;
-
-        try (Connection conn = DriverManager.getConnection(url, user, password)) {
-            // SQL query to check if category exists
-            String sql = "SELECT 1 FROM category WHERE name = ?";
-            preparedStatement = conn.prepareStatement(sql);
-            preparedStatement.setString(1, categoryName);
-
-            // Execute the query
-            ResultSet rs = preparedStatement.executeQuery();
-
-            // Check if a result was returned
-            return rs.next();
-
+        try {
+            return loadedCategoryCache().contains(categoryName);
         } catch (SQLException e) {
             // Handle any errors
             e.printStackTrace();
@@ -436,30 +1165,120 @@ public class Database {
     }
 
     /**
-     * Function used to check if a category is referenced by any tasks.
+     * Function used to check if a category is referenced by any tasks, using
+     * the reference counts kept in the in-memory category cache.
      *
      * @param categoryName the name of the category to check
      * @return true if the category is referenced by any tasks, false otherwise
      */
     public static boolean isCategoryReferenced(String categoryName) {
-        PreparedStatement preparedStatement;
-
-        try (Connection conn = DriverManager.getConnection(url, user, password)) {
-            // SQL query to check if category is referenced by any tasks
-            String sql = "SELECT 1 FROM task WHERE category = ?";
-            preparedStatement = conn.prepareStatement(sql);
-            preparedStatement.setString(1, categoryName);
-
-            // Execute the query
-            ResultSet rs = preparedStatement.executeQuery();
-
-            // Check if a result was returned
-            return rs.next();
-
+        try {
+            return loadedCategoryCache().isReferenced(categoryName);
         } catch (SQLException e) {
             // Handle any errors
             e.printStackTrace();
         }
         return false;
     }
+
+    /**
+     * Private function used to record that tasks were added or deleted,
+     * dropping the cached task searches and moving on the task version.
+     * Called while holding the writer connection.
+     */
+    private static void tasksChanged() {
+        taskSearchCache.invalidate();
+        taskVersion.incrementAndGet();
+    }
+
+    /**
+     * Private function used to record that categories were added or
+     * deleted, dropping the cached category searches and moving on the
+     * category version. Called while holding the writer connection.
+     */
+    private static void categoriesChanged() {
+        categorySearchCache.invalidate();
+        categoryVersion.incrementAndGet();
+    }
+
+    /**
+     * Private function used to get the category cache, reading it from the
+     * database first if this is the first time it is used.
+     *
+     * @return the loaded category cache
+     * @throws SQLException if the categories could not be read
+     */
+    private static CategoryCache loadedCategoryCache() throws SQLException {
+        if (!categoryCache.isLoaded()) {
+            categoryCache.recordMiss();
+            connections.write(conn -> {
+                if (!categoryCache.isLoaded()) categoryCache.load(conn);
+                return null;
+            });
+        }
+        return categoryCache;
+    }
+
+    /**
+     * Private function used to get the trigram index of the tasks, reading it
+     * from the database first if this is the first time it is used.
+     *
+     * @return the loaded trigram index
+     * @throws SQLException if the tasks could not be read
+     */
+    private static TrigramIndex loadedTaskIndex() throws SQLException {
+        if (!taskIndex.isLoaded()) {
+            connections.write(conn -> {
+                if (!taskIndex.isLoaded()) taskIndex.load(conn);
+                return null;
+            });
+        }
+        return taskIndex;
+    }
+
+    /**
+     * Private function used to get the fuzzy index of the tasks, reading it
+     * from the database first if this is the first time it is used.
+     *
+     * @return the loaded fuzzy task index
+     * @throws SQLException if the tasks could not be read
+     */
+    private static FuzzyIndex<TaskSummary> loadedFuzzyTaskIndex() throws SQLException {
+        if (!fuzzyTaskIndex.isLoaded()) {
+            connections.write(conn -> {
+                if (!fuzzyTaskIndex.isLoaded()) fuzzyTaskIndex.load(index -> {
+                    try (ResultSet rs = conn.prepare("SELECT task_id, name, category FROM task").executeQuery()) {
+                        while (rs.next()) {
+                            index.accept(new TaskSummary(rs.getLong(1), rs.getString(2)),
+                                    new String[] {rs.getString(2), rs.getString(3)});
+                        }
+                    }
+                });
+                return null;
+            });
+        }
+        return fuzzyTaskIndex;
+    }
+
+    /**
+     * Private function used to get the fuzzy index of the categories, filling
+     * it from the category cache first if this is the first time it is used.
+     *
+     * @return the loaded fuzzy category index
+     * @throws SQLException if the categories could not be read
+     */
+    private static FuzzyIndex<String> loadedFuzzyCategoryIndex() throws SQLException {
+        if (!fuzzyCategoryIndex.isLoaded()) {
+            CategoryCache cache = loadedCategoryCache();
+            connections.write(conn -> {
+                if (!fuzzyCategoryIndex.isLoaded()) fuzzyCategoryIndex.load(index -> {
+                    for (String name : cache.all().keySet()) {
+                        index.accept(name, new String[] {name});
+                    }
+                });
+                return null;
+            });
+        }
+        return fuzzyCategoryIndex;
+    }
 }
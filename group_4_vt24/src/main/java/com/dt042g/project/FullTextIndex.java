@@ -0,0 +1,133 @@
+package com.dt042g.project;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Class managing the FTS5 full-text index over the name, information and
+ * category of every task. The index is an external content table that
+ * reads its text from the "task" table, and is kept in sync with it by
+ * triggers on insert, delete and update.
+ */
+final class FullTextIndex {
+    static final String TABLE = "task_fts";
+
+    /**
+     * BM25 relevance of a row, with a match in the name weighing the most and
+     * one in the longer information text the least. FTS5 returns it negated,
+     * so that the best matches sort first.
+     */
+    static final String RANK = "bm25(task_fts, 10.0, 1.0, 4.0)";
+
+    private static final Pattern QUERY_PART = Pattern.compile("\"([^\"]*)\"?|([^\\s\"]+)");
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final String[] SCHEMA = {
+            // prefix indexes make the short prefixes typed into the search bar cheap to look up
+            "CREATE VIRTUAL TABLE IF NOT EXISTS task_fts USING fts5("
+                    + "name, information, category, content='task', content_rowid='rowid', prefix='2 3')",
+            "CREATE TRIGGER IF NOT EXISTS task_fts_insert AFTER INSERT ON task BEGIN "
+                    + "INSERT INTO task_fts (rowid, name, information, category) "
+                    + "VALUES (new.rowid, new.name, new.information, new.category); END",
+            "CREATE TRIGGER IF NOT EXISTS task_fts_delete AFTER DELETE ON task BEGIN "
+                    + "INSERT INTO task_fts (task_fts, rowid, name, information, category) "
+                    + "VALUES ('delete', old.rowid, old.name, old.information, old.category); END",
+            "CREATE TRIGGER IF NOT EXISTS task_fts_update AFTER UPDATE ON task BEGIN "
+                    + "INSERT INTO task_fts (task_fts, rowid, name, information, category) "
+                    + "VALUES ('delete', old.rowid, old.name, old.information, old.category); "
+                    + "INSERT INTO task_fts (rowid, name, information, category) "
+                    + "VALUES (new.rowid, new.name, new.information, new.category); END"
+    };
+
+    /** Private constructor for the class. */
+    private FullTextIndex() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Function used to create the index and its triggers if they do not exist
+     * yet. A newly created index is filled from the rows already in the
+     * "task" table. Run by the migrations, in a transaction on the writer connection.
+     *
+     * @param conn the writer connection
+     * @throws SQLException if the index could not be created
+     */
+    static void ensureCreated(PooledConnection conn) throws SQLException {
+        try (Statement stmt = conn.connection().createStatement()) {
+            boolean exists;
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = '" + TABLE + "'")) {
+                exists = rs.next();
+            }
+
+            for (String sql : SCHEMA) {
+                stmt.execute(sql);
+            }
+            if (!exists) {
+                rebuild(conn);
+            }
+        }
+    }
+
+    /**
+     * Function used to refill the index from every row in the "task" table.
+     * Should be run in a transaction on the writer connection.
+     *
+     * @param conn the writer connection
+     * @throws SQLException if the index could not be rebuilt
+     */
+    static void rebuild(PooledConnection conn) throws SQLException {
+        try (Statement stmt = conn.connection().createStatement()) {
+            stmt.execute("INSERT INTO task_fts (task_fts) VALUES ('rebuild')");
+        }
+    }
+
+    /**
+     * Function used to turn text typed by a user into an FTS5 query. Text
+     * inside double quotes is searched for as a phrase, every other word is
+     * searched for as a prefix, and a row has to match all of them.
+     * For example {@code weekly "team meeting"} becomes
+     * {@code "weekly"* "team meeting"}.
+     *
+     * @param query the text typed by the user
+     * @return the FTS5 query, or null if the text contains nothing to search for
+     */
+    static String toMatchQuery(String query) {
+        List<String> phrases = new ArrayList<>();
+
+        Matcher matcher = QUERY_PART.matcher(query);
+        while (matcher.find()) {
+            if (matcher.group(1) != null) {
+                String phrase = String.join(" ", tokens(matcher.group(1)));
+                if (!phrase.isEmpty()) phrases.add("\"" + phrase + "\"");
+            } else {
+                for (String token : tokens(matcher.group(2))) {
+                    phrases.add("\"" + token + "\"*");
+                }
+            }
+        }
+        if (phrases.isEmpty()) return null;
+
+        return String.join(" ", phrases);
+    }
+
+    /**
+     * Private function used to split text into the tokens the FTS5 tokenizer
+     * would produce, so that punctuation never reaches the query syntax.
+     *
+     * @param text the text to split
+     * @return the tokens in the text
+     */
+    private static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text)) {
+            if (!token.isEmpty()) tokens.add(token);
+        }
+        return tokens;
+    }
+}
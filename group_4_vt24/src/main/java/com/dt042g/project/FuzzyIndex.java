@@ -0,0 +1,304 @@
+package com.dt042g.project;
+
+import java.sql.SQLException;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * In-memory index answering typo-tolerant searches, finding the keys whose
+ * text contains words within a small edit distance of the words of a query.
+ * Every distinct word, with ASCII letters lower-cased, is stored once in a
+ * BK-tree: each child of a word is filed under its edit distance to that
+ * word, so by the triangle inequality a search only has to visit the
+ * children whose distance is within the allowed number of edits of the
+ * query's own distance, instead of comparing the query to every word.
+ *
+ * The index is filled once and then kept up to date by the Database class
+ * while holding the writer connection. Words that are no longer used by any
+ * key stay in the tree until it is rebuilt, which happens once they make up
+ * half of it.
+ *
+ * @param <K> the type of the keys, such as tasks or category names
+ */
+final class FuzzyIndex<K> {
+    /** The largest number of edits a search can allow. */
+    static final int MAX_DISTANCE = 2;
+
+    private final Comparator<K> order;
+    private final Map<K, Set<String>> wordsByKey = new HashMap<>();
+    private final Map<String, Set<K>> keysByWord = new HashMap<>();
+    private Node root;
+    private int treeSize;
+    private volatile boolean loaded;
+
+    /**
+     * Functional interface for reading every key and its text into the index.
+     *
+     * @param <K> the type of the keys
+     */
+    @FunctionalInterface
+    interface Loader<K> {
+        /**
+         * Function used to read the keys.
+         *
+         * @param index function to call with every key and its text
+         * @throws SQLException if the keys could not be read
+         */
+        void load(BiConsumer<K, String[]> index) throws SQLException;
+    }
+
+    /**
+     * Class holding one word of the BK-tree and its children, filed by
+     * their edit distance to the word.
+     */
+    private static final class Node {
+        private final String word;
+        private final Map<Integer, Node> children = new HashMap<>(4);
+
+        private Node(String word) {
+            this.word = word;
+        }
+    }
+
+    /**
+     * Constructor for the FuzzyIndex class.
+     *
+     * @param order the order of keys found at the same distance
+     */
+    FuzzyIndex(Comparator<K> order) {
+        this.order = order;
+    }
+
+    /**
+     * Function used to check whether the index has been filled.
+     *
+     * @return true if the index is loaded, false otherwise
+     */
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Function used to fill the index, replacing anything already in it.
+     *
+     * @param loader function reading every key and its text
+     * @throws SQLException if the keys could not be read
+     */
+    synchronized void load(Loader<K> loader) throws SQLException {
+        wordsByKey.clear();
+        keysByWord.clear();
+        root = null;
+        treeSize = 0;
+
+        loader.load(this::index);
+        loaded = true;
+    }
+
+    /**
+     * Function used to record a key added to the database. Does nothing
+     * if the index has not been loaded yet, as loading will read the key.
+     *
+     * @param key the key
+     * @param texts the texts of the key, null texts are skipped
+     */
+    synchronized void add(K key, String... texts) {
+        if (loaded) index(key, texts);
+    }
+
+    /**
+     * Function used to record a key deleted from the database.
+     *
+     * @param key the key
+     */
+    synchronized void remove(K key) {
+        Set<String> words = wordsByKey.remove(key);
+        if (words == null) return;
+
+        for (String word : words) {
+            Set<K> keys = keysByWord.get(word);
+            keys.remove(key);
+            if (keys.isEmpty()) keysByWord.remove(word);
+        }
+        if (treeSize > 2 * keysByWord.size() + 64) rebuild();
+    }
+
+    /**
+     * Function used to find the keys whose text contains every word of a
+     * query, allowing each word to differ by a few inserted, deleted or
+     * replaced characters. Short words allow fewer edits, since almost any
+     * word is one or two edits away from them: none up to two characters,
+     * one up to five characters.
+     *
+     * @param query the words to search for
+     * @param maxDistance the largest number of edits allowed per word, at most {@link #MAX_DISTANCE}
+     * @return a List of the matching keys, closest first
+     */
+    synchronized List<K> search(String query, int maxDistance) {
+        if (maxDistance < 0 || maxDistance > MAX_DISTANCE) {
+            throw new IllegalArgumentException("Edit distance must be between 0 and " + MAX_DISTANCE + "!");
+        }
+
+        Map<K, Integer> distances = null;
+        for (String queryWord : words(query)) {
+            int allowed = Math.min(maxDistance, queryWord.length() <= 2 ? 0 : queryWord.length() <= 5 ? 1 : 2);
+
+            // the closest word of each key decides its distance to this query word
+            Map<K, Integer> wordDistances = new HashMap<>();
+            for (Map.Entry<String, Integer> match : closeWords(queryWord, allowed).entrySet()) {
+                for (K key : keysByWord.getOrDefault(match.getKey(), Set.of())) {
+                    wordDistances.merge(key, match.getValue(), Math::min);
+                }
+            }
+
+            if (distances == null) {
+                distances = wordDistances;
+            } else {
+                distances.keySet().retainAll(wordDistances.keySet());
+                distances.replaceAll((key, distance) -> distance + wordDistances.get(key));
+            }
+            if (distances.isEmpty()) break;
+        }
+        if (distances == null) return new ArrayList<>();
+
+        Map<K, Integer> ranked = distances;
+        List<K> keys = new ArrayList<>(ranked.keySet());
+        keys.sort(Comparator.comparing((K key) -> ranked.get(key)).thenComparing(order));
+        return keys;
+    }
+
+    /**
+     * Function used to get the number of distinct words in use.
+     *
+     * @return the number of words
+     */
+    synchronized int wordCount() {
+        return keysByWord.size();
+    }
+
+    /**
+     * Function used to get the edit distance between two words, the fewest
+     * characters that have to be inserted, deleted or replaced to turn one
+     * into the other.
+     *
+     * @param a the first word
+     * @param b the second word
+     * @return the edit distance
+     */
+    static int distance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int replace = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(replace, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * Private function used to add a key and the words of its texts to the index.
+     *
+     * @param key the key
+     * @param texts the texts of the key, null texts are skipped
+     */
+    private void index(K key, String... texts) {
+        Set<String> words = wordsByKey.computeIfAbsent(key, k -> new HashSet<>());
+        for (String text : texts) {
+            if (text == null) continue;
+
+            for (String word : words(text)) {
+                if (!words.add(word)) continue;
+                if (!keysByWord.containsKey(word)) insert(word);
+                keysByWord.computeIfAbsent(word, w -> new HashSet<>()).add(key);
+            }
+        }
+    }
+
+    /**
+     * Private function used to add a word to the BK-tree, unless it is already in it.
+     *
+     * @param word the word
+     */
+    private void insert(String word) {
+        if (root == null) {
+            root = new Node(word);
+            treeSize++;
+            return;
+        }
+
+        Node node = root;
+        while (true) {
+            int distance = distance(word, node.word);
+            if (distance == 0) return;
+
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node(word));
+                treeSize++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Private function used to rebuild the BK-tree from the words in use,
+     * dropping the words no key uses anymore.
+     */
+    private void rebuild() {
+        root = null;
+        treeSize = 0;
+        for (String word : keysByWord.keySet()) {
+            insert(word);
+        }
+    }
+
+    /**
+     * Private function used to find the words in use within a number of edits of a word.
+     *
+     * @param word the word to search for
+     * @param allowed the largest number of edits allowed
+     * @return a Map of the close words to their distance
+     */
+    private Map<String, Integer> closeWords(String word, int allowed) {
+        Map<String, Integer> matches = new HashMap<>();
+        if (root == null) return matches;
+
+        ArrayDeque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            int distance = distance(word, node.word);
+            if (distance <= allowed && keysByWord.containsKey(node.word)) matches.put(node.word, distance);
+
+            for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                if (Math.abs(child.getKey() - distance) <= allowed) pending.push(child.getValue());
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Private function used to split a text into its distinct words, with
+     * ASCII letters lower-cased.
+     *
+     * @param text the text
+     * @return the words of the text
+     */
+    private static Set<String> words(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : SearchCache.normalize(text).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) words.add(word);
+        }
+        return words;
+    }
+}
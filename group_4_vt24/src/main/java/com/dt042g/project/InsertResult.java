@@ -0,0 +1,16 @@
+package com.dt042g.project;
+
+/**
+ * Enum describing what happened to a single row passed to one of the
+ * bulk insert functions in the Database class.
+ */
+public enum InsertResult {
+    /** The row was added to the table. */
+    INSERTED,
+    /** The row was skipped because its name is already in use. */
+    DUPLICATE,
+    /** The row was skipped because its category does not exist. */
+    MISSING_CATEGORY,
+    /** The row was skipped because its due date is not a valid yyyy-MM-dd date. */
+    INVALID_DUE_DATE
+}
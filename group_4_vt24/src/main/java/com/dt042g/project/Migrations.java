@@ -0,0 +1,148 @@
+package com.dt042g.project;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Class bringing the schema of the database up to date when the program
+ * starts. The version of the schema is stored in {@code PRAGMA user_version}
+ * and every migration newer than it is applied in order, each one in its own
+ * transaction together with the version bump, so that a failed migration
+ * leaves the schema at the last version that was fully applied.
+ *
+ * Migrations only move forward. To change the schema, add a new migration
+ * to the end of the list instead of editing one that has already shipped.
+ */
+final class Migrations {
+
+    /**
+     * Migrations in the order they are applied, the migration at index
+     * {@code i} brings the schema to version {@code i + 1}.
+     */
+    private static final List<SqlFunction<Void>> MIGRATIONS = List.of(
+            // 1: the tables the program was first released with
+            conn -> execute(conn,
+                    "CREATE TABLE IF NOT EXISTS category (name TEXT PRIMARY KEY, description TEXT)",
+                    "CREATE TABLE IF NOT EXISTS task (name text primary key, information text not null, "
+                            + "category text, due_date text not null, "
+                            + "foreign key (category) references category(name))"),
+            // 2: leftover copy of the task table from a manual migration
+            conn -> execute(conn, "DROP TABLE IF EXISTS task_old"),
+            // 3: full-text index over the tasks
+            conn -> {
+                FullTextIndex.ensureCreated(conn);
+                return null;
+            },
+            // 4: indexes for category reference checks and due date queries
+            conn -> execute(conn,
+                    "CREATE INDEX IF NOT EXISTS task_category_index ON task (category)",
+                    "CREATE INDEX IF NOT EXISTS task_due_date_index ON task (due_date)"),
+            // 5: integer id for tasks, keeping the rowids the full-text index already refers to
+            conn -> {
+                execute(conn,
+                        "CREATE TABLE task_new (task_id INTEGER PRIMARY KEY, name text not null unique, "
+                                + "information text not null, category text, due_date text not null, "
+                                + "foreign key (category) references category(name))",
+                        "INSERT INTO task_new (task_id, name, information, category, due_date) "
+                                + "SELECT rowid, name, information, category, due_date FROM task",
+                        "DROP TABLE task",
+                        "ALTER TABLE task_new RENAME TO task",
+                        "CREATE INDEX task_category_index ON task (category)",
+                        "CREATE INDEX task_due_date_index ON task (due_date)");
+                FullTextIndex.ensureCreated(conn);
+                FullTextIndex.rebuild(conn);
+                return null;
+            },
+            // 6: due dates stored as the number of days since 1970-01-01, null where the text was not a date
+            conn -> {
+                execute(conn,
+                        "CREATE TABLE task_new (task_id INTEGER PRIMARY KEY, name text not null unique, "
+                                + "information text not null, category text, due_date INTEGER, "
+                                + "foreign key (category) references category(name))",
+                        "INSERT INTO task_new (task_id, name, information, category, due_date) "
+                                + "SELECT task_id, name, information, category, "
+                                + "CASE WHEN date(due_date) = due_date "
+                                + "THEN CAST(julianday(due_date) - 2440587.5 AS INTEGER) END FROM task",
+                        "DROP TABLE task",
+                        "ALTER TABLE task_new RENAME TO task",
+                        "CREATE INDEX task_category_index ON task (category)",
+                        "CREATE INDEX task_due_date_index ON task (due_date)");
+                FullTextIndex.ensureCreated(conn);
+                return null;
+            }
+    );
+
+    /** Private constructor for the class. */
+    private Migrations() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Function used to get the schema version the migrations bring the database to.
+     *
+     * @return the latest schema version
+     */
+    static int latestVersion() {
+        return MIGRATIONS.size();
+    }
+
+    /**
+     * Function used to apply every migration the database has not seen yet.
+     *
+     * @param connections the connections to the database to migrate
+     * @return the schema version of the database after migrating
+     * @throws SQLException if a migration failed
+     * @throws IllegalStateException if the database was created by a newer version of the program
+     */
+    static int migrate(ConnectionManager connections) throws SQLException {
+        int version = connections.write(Migrations::version);
+        if (version > latestVersion()) {
+            throw new IllegalStateException("Database schema version " + version
+                    + " is newer than the supported version " + latestVersion());
+        }
+
+        while (version < latestVersion()) {
+            int next = version + 1;
+            connections.transaction(conn -> {
+                MIGRATIONS.get(next - 1).apply(conn);
+                execute(conn, "PRAGMA user_version = " + next);
+                return null;
+            });
+            version = next;
+        }
+        return version;
+    }
+
+    /**
+     * Function used to read the schema version stored in the database.
+     *
+     * @param conn the connection to read from
+     * @return the schema version, 0 for a database that has never been migrated
+     * @throws SQLException if the version could not be read
+     */
+    static int version(PooledConnection conn) throws SQLException {
+        try (Statement stmt = conn.connection().createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Private function used to execute schema statements.
+     *
+     * @param conn the connection to execute the statements on
+     * @param sql the statements to execute
+     * @return null, so that migrations can return the call directly
+     * @throws SQLException if a statement failed
+     */
+    private static Void execute(PooledConnection conn, String... sql) throws SQLException {
+        try (Statement stmt = conn.connection().createStatement()) {
+            for (String statement : sql) {
+                stmt.execute(statement);
+            }
+        }
+        return null;
+    }
+}
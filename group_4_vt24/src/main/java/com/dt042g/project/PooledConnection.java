@@ -0,0 +1,91 @@
+package com.dt042g.project;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Wrapper around a long-lived JDBC connection owned by the ConnectionManager.
+ * Keeps track of when the connection was last validated, so that health
+ * checks only have to hit the database every once in a while, and holds the
+ * cache of statements prepared on the connection.
+ */
+final class PooledConnection implements AutoCloseable {
+    private static final long VALIDATION_INTERVAL_NANOS = 30_000_000_000L;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+    private static final int STATEMENT_CACHE_SIZE = 32;
+
+    private final Connection connection;
+    private final StatementCache statements;
+    private long lastValidated;
+
+    /**
+     * Constructor for the PooledConnection class.
+     *
+     * @param connection the open connection to wrap
+     * @param statementStats the counters used by the connection's statement cache
+     */
+    PooledConnection(Connection connection, CacheStats statementStats) {
+        this.connection = connection;
+        this.statements = new StatementCache(connection, STATEMENT_CACHE_SIZE, statementStats);
+        this.lastValidated = System.nanoTime();
+    }
+
+    /**
+     * Getter function used to get the underlying JDBC connection.
+     *
+     * @return the wrapped connection
+     */
+    Connection connection() {
+        return connection;
+    }
+
+    /**
+     * Function used to get a cached prepared statement for the specified SQL.
+     * The statement belongs to the connection and must not be closed by the
+     * caller, but result sets produced by it must be.
+     *
+     * @param sql the SQL text of the statement
+     * @return a prepared statement with its parameters cleared
+     * @throws SQLException if the statement could not be prepared
+     */
+    PreparedStatement prepare(String sql) throws SQLException {
+        return statements.prepare(sql);
+    }
+
+    /**
+     * Function used to check whether the connection can still be used. A closed
+     * connection is always unhealthy, an open one is validated against the
+     * database if it has not been validated recently.
+     *
+     * @return true if the connection is usable, false otherwise
+     */
+    boolean isHealthy() {
+        try {
+            if (connection.isClosed()) return false;
+
+            long now = System.nanoTime();
+            if (now - lastValidated < VALIDATION_INTERVAL_NANOS) return true;
+
+            boolean valid = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            if (valid) lastValidated = now;
+            return valid;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Function used to close the cached statements and the underlying
+     * connection, errors are ignored as the connection is being discarded anyway.
+     */
+    @Override
+    public void close() {
+        statements.close();
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // Nothing to do, the connection is being thrown away
+        }
+    }
+}
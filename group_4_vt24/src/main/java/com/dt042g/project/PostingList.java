@@ -0,0 +1,132 @@
+package com.dt042g.project;
+
+import java.util.Arrays;
+
+/**
+ * Sorted list of task ids stored compactly as the differences between
+ * consecutive ids, each written as a variable-length integer of 7 bits per
+ * byte. Since new tasks get the highest id so far, adding one is usually an
+ * append. Adding an id out of order, or removing one, re-encodes the list.
+ */
+final class PostingList {
+    private byte[] data = new byte[8];
+    private int length;
+    private int count;
+    private long last;
+
+    /**
+     * Function used to add an id to the list. Adding an id that is already
+     * in the list has no effect.
+     *
+     * @param id the id to add, not negative
+     */
+    void add(long id) {
+        if (count == 0 || id > last) {
+            append(id);
+            return;
+        }
+
+        long[] ids = toArray();
+        int index = Arrays.binarySearch(ids, id);
+        if (index >= 0) return;
+
+        index = -index - 1;
+        long[] added = new long[ids.length + 1];
+        System.arraycopy(ids, 0, added, 0, index);
+        added[index] = id;
+        System.arraycopy(ids, index, added, index + 1, ids.length - index);
+        encode(added, added.length);
+    }
+
+    /**
+     * Function used to remove an id from the list.
+     *
+     * @param id the id to remove
+     * @return true if the id was in the list, false otherwise
+     */
+    boolean remove(long id) {
+        long[] ids = toArray();
+        int index = Arrays.binarySearch(ids, id);
+        if (index < 0) return false;
+
+        System.arraycopy(ids, index + 1, ids, index, ids.length - index - 1);
+        encode(ids, ids.length - 1);
+        return true;
+    }
+
+    /**
+     * Function used to get the number of ids in the list.
+     *
+     * @return the number of ids
+     */
+    int size() {
+        return count;
+    }
+
+    /**
+     * Function used to get the number of bytes used to store the ids.
+     *
+     * @return the encoded size in bytes
+     */
+    int encodedSize() {
+        return length;
+    }
+
+    /**
+     * Function used to decode every id in the list.
+     *
+     * @return the ids, in increasing order
+     */
+    long[] toArray() {
+        long[] ids = new long[count];
+        long id = 0;
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            id += delta;
+            ids[i] = id;
+        }
+        return ids;
+    }
+
+    /**
+     * Private function used to replace the contents of the list.
+     *
+     * @param ids the ids to store, in increasing order
+     * @param idCount the number of ids to read from the array
+     */
+    private void encode(long[] ids, int idCount) {
+        length = 0;
+        count = 0;
+        last = 0;
+        for (int i = 0; i < idCount; i++) {
+            append(ids[i]);
+        }
+    }
+
+    /**
+     * Private function used to add an id greater than every id in the list.
+     *
+     * @param id the id to add
+     */
+    private void append(long id) {
+        long delta = id - last;
+        if (length + 10 > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + 10));
+        }
+        while ((delta & ~0x7FL) != 0) {
+            data[length++] = (byte) ((delta & 0x7F) | 0x80);
+            delta >>>= 7;
+        }
+        data[length++] = (byte) delta;
+        last = id;
+        count++;
+    }
+}
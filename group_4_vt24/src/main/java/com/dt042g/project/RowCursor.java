@@ -0,0 +1,95 @@
+package com.dt042g.project;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator reading rows from an open result set one at a time as they
+ * are consumed, so that a query can be processed without holding all of
+ * its rows in memory. The result set and the connection it was read from
+ * are released when the cursor is closed, which must always happen, as the
+ * connection is not available to any other read until then.
+ *
+ * @param <T> the type of the values read from the rows
+ */
+final class RowCursor<T> extends Spliterators.AbstractSpliterator<T> implements AutoCloseable {
+    private final ConnectionManager connections;
+    private final PooledConnection conn;
+    private final ResultSet rs;
+    private final RowReader<T> reader;
+    private boolean closed;
+
+    /**
+     * Functional interface for reading the value on the current row of a result set.
+     *
+     * @param <T> the type of the value read from the row
+     */
+    @FunctionalInterface
+    interface RowReader<T> {
+        /**
+         * Function used to read the value on the current row.
+         *
+         * @param rs the result set, positioned on a row
+         * @return the value on the row
+         * @throws SQLException if the row could not be read
+         */
+        T read(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Constructor for the RowCursor class.
+     *
+     * @param connections the manager the connection was borrowed from
+     * @param conn the borrowed connection the result set was read from
+     * @param rs the open result set
+     * @param reader the function reading a value from each row
+     */
+    RowCursor(ConnectionManager connections, PooledConnection conn, ResultSet rs, RowReader<T> reader) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.connections = connections;
+        this.conn = conn;
+        this.rs = rs;
+        this.reader = reader;
+    }
+
+    /**
+     * Function used to read the next row, if there is one.
+     *
+     * @param action the action to pass the value on the row to
+     * @return true if a row was read, false if there are no more rows
+     * @throws IllegalStateException if the row could not be read
+     */
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (closed) return false;
+        try {
+            if (!rs.next()) return false;
+            action.accept(reader.read(rs));
+            return true;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not read the next row", e);
+        }
+    }
+
+    /**
+     * Function used to close the result set and hand the connection back.
+     * Closing the cursor more than once has no effect.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+
+        try {
+            rs.close();
+        } catch (SQLException e) {
+            // Handle any errors
+            e.printStackTrace();
+        } finally {
+            connections.release(conn);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.dt042g.project;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Class turning rows of the "task" and "category" tables into records.
+ * Queries select the columns listed in {@link #TASK_COLUMNS} and
+ * {@link #CATEGORY_COLUMNS}, so that the values can be read by position
+ * without looking at the metadata of the result set.
+ */
+final class RowMapper {
+    static final String TASK_COLUMNS = "task_id, name, information, category, due_date";
+    static final String CATEGORY_COLUMNS = "name, description";
+
+    /** Private constructor for the class. */
+    private RowMapper() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Function used to read the task on the current row of a result set
+     * selecting {@link #TASK_COLUMNS}.
+     *
+     * @param rs the result set, positioned on a row
+     * @return the task on the row
+     * @throws SQLException if the row could not be read
+     */
+    static Task toTask(ResultSet rs) throws SQLException {
+        // wasNull only tells about the column read last, so the due date is checked straight away
+        long dueDay = rs.getLong(5);
+        LocalDate dueDate = rs.wasNull() ? null : LocalDate.ofEpochDay(dueDay);
+        return new Task(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), dueDate);
+    }
+
+    /**
+     * Function used to read the id and name of the task on the current row of
+     * a result set selecting {@code task_id, name}.
+     *
+     * @param rs the result set, positioned on a row
+     * @return the id and name of the task on the row
+     * @throws SQLException if the row could not be read
+     */
+    static TaskSummary toTaskSummary(ResultSet rs) throws SQLException {
+        return new TaskSummary(rs.getLong(1), rs.getString(2));
+    }
+
+    /**
+     * Function used to read the category on the current row of a result set
+     * selecting {@link #CATEGORY_COLUMNS}.
+     *
+     * @param rs the result set, positioned on a row
+     * @return the category on the row
+     * @throws SQLException if the row could not be read
+     */
+    static Category toCategory(ResultSet rs) throws SQLException {
+        return new Category(rs.getString(1), rs.getString(2));
+    }
+}
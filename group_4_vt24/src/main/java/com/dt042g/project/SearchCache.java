@@ -0,0 +1,245 @@
+package com.dt042g.project;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Least-recently-used cache of search results, keyed by the query with ASCII
+ * letters lower-cased, since searches ignore their case. The cache is bounded
+ * both by its number of queries and by its total weight, the number of results
+ * held across all queries, so that a few searches matching most of the table
+ * cannot fill memory.
+ *
+ * A query that extends a cached one, such as "meeting" after "meet", can only
+ * match a subset of the cached results, so instead of running the full search
+ * those results are narrowed down in memory. Searching gets cheaper as the
+ * user keeps typing.
+ *
+ * Whenever a write changes the searched table, the cache is invalidated by
+ * starting a new generation. A search that started in an earlier generation
+ * still returns its result to its caller, but the result is not cached, since
+ * it may have been read before the write.
+ *
+ * @param <V> the type of the search results, which callers must not modify
+ */
+final class SearchCache<V> {
+    private final int maxEntries;
+    private final long maxWeight;
+    private final ToIntFunction<V> weigher;
+    private final CacheStats stats = new CacheStats();
+    private final LinkedHashMap<String, V> results = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+    private long generation;
+    private long refinements;
+
+    /**
+     * Functional interface for the search run when a query is not cached.
+     *
+     * @param <V> the type of the search results
+     */
+    @FunctionalInterface
+    interface Search<V> {
+        /**
+         * Function used to run the search.
+         *
+         * @return the search results
+         * @throws SQLException if the search failed
+         */
+        V run() throws SQLException;
+    }
+
+    /**
+     * Functional interface for narrowing down the cached results of a query
+     * to the results of a query extending it.
+     *
+     * @param <V> the type of the search results
+     */
+    @FunctionalInterface
+    interface Refine<V> {
+        /**
+         * Function used to narrow down the results.
+         *
+         * @param previous the cached results of the shorter query, which must not be modified
+         * @return the results of the extended query
+         * @throws SQLException if the results could not be narrowed down
+         */
+        V run(V previous) throws SQLException;
+    }
+
+    /**
+     * Constructor for the SearchCache class.
+     *
+     * @param maxEntries the maximum number of queries to keep results for
+     * @param maxWeight the maximum total weight of the kept results
+     * @param weigher function giving the weight of the results of one query
+     */
+    SearchCache(int maxEntries, long maxWeight, ToIntFunction<V> weigher) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Function used to get the results of a query, running the search only
+     * if they are not cached.
+     *
+     * @param query the query
+     * @param search the search to run if the results are not cached
+     * @return the results of the query
+     * @throws SQLException if the search failed, nothing is cached then
+     */
+    V get(String query, Search<V> search) throws SQLException {
+        return get(query, search, null);
+    }
+
+    /**
+     * Function used to get the results of a query. If they are not cached but
+     * the results of a query contained in it are, those results are narrowed
+     * down instead of running the search.
+     *
+     * @param query the query
+     * @param search the search to run if no usable results are cached
+     * @param refine the function narrowing down the results of a contained query, may be null
+     * @return the results of the query
+     * @throws SQLException if the search failed, nothing is cached then
+     */
+    V get(String query, Search<V> search, Refine<V> refine) throws SQLException {
+        String key = normalize(query);
+        long searchGeneration;
+        V previous = null;
+
+        synchronized (this) {
+            V cached = results.get(key);
+            if (cached != null) {
+                stats.recordHit();
+                return cached;
+            }
+            stats.recordMiss();
+            searchGeneration = generation;
+            if (refine != null) previous = narrowest(key);
+        }
+
+        // search without holding the lock, so that other queries can be answered meanwhile
+        V found;
+        if (previous != null) {
+            found = refine.run(previous);
+            synchronized (this) {
+                refinements++;
+            }
+        } else {
+            found = search.run();
+        }
+
+        synchronized (this) {
+            if (searchGeneration == generation) {
+                put(key, found);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Function used to drop every cached result, after a write that changes
+     * what searches would find.
+     */
+    synchronized void invalidate() {
+        generation++;
+        results.clear();
+        weight = 0;
+    }
+
+    /**
+     * Function used to get the number of queries with cached results.
+     *
+     * @return the number of cached queries
+     */
+    synchronized int size() {
+        return results.size();
+    }
+
+    /**
+     * Function used to get the number of queries answered by narrowing down
+     * the cached results of a shorter query.
+     *
+     * @return the number of refined queries
+     */
+    synchronized long refinements() {
+        return refinements;
+    }
+
+    /**
+     * Getter function used to get the hit and miss counters of the cache.
+     *
+     * @return the cache counters
+     */
+    CacheStats stats() {
+        return stats;
+    }
+
+    /**
+     * Function used to turn a query into its cache key. Queries that only
+     * differ in the case of ASCII letters find the same results.
+     *
+     * @param query the query
+     * @return the cache key
+     */
+    static String normalize(String query) {
+        StringBuilder key = new StringBuilder(query.length());
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            key.append(c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+        }
+        return key.toString();
+    }
+
+    /**
+     * Private function used to find the smallest cached results of a query
+     * contained in a key. Every cached result belongs to the current
+     * generation, since invalidating clears the cache. Must be called while
+     * holding the lock.
+     *
+     * @param key the cache key of the new query
+     * @return the smallest usable results, or null if there are none
+     */
+    private V narrowest(String key) {
+        V narrowest = null;
+        int narrowestWeight = Integer.MAX_VALUE;
+        for (Map.Entry<String, V> entry : results.entrySet()) {
+            if (!key.contains(entry.getKey())) continue;
+
+            int entryWeight = weigher.applyAsInt(entry.getValue());
+            if (entryWeight < narrowestWeight) {
+                narrowest = entry.getValue();
+                narrowestWeight = entryWeight;
+            }
+        }
+        return narrowest;
+    }
+
+    /**
+     * Private function used to add results to the cache, evicting the least
+     * recently used ones until the cache is within its bounds again. Results
+     * heavier than the whole cache are not kept.
+     *
+     * @param key the cache key
+     * @param found the results
+     */
+    private void put(String key, V found) {
+        int foundWeight = weigher.applyAsInt(found) + 1;
+        if (foundWeight > maxWeight) return;
+
+        V replaced = results.put(key, found);
+        if (replaced != null) weight -= weigher.applyAsInt(replaced) + 1;
+        weight += foundWeight;
+
+        Iterator<Map.Entry<String, V>> eldest = results.entrySet().iterator();
+        while ((results.size() > maxEntries || weight > maxWeight) && eldest.hasNext()) {
+            Map.Entry<String, V> entry = eldest.next();
+            weight -= weigher.applyAsInt(entry.getValue()) + 1;
+            eldest.remove();
+        }
+    }
+}
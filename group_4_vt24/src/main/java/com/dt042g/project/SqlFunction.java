@@ -0,0 +1,22 @@
+package com.dt042g.project;
+
+import java.sql.SQLException;
+
+/**
+ * Functional interface for a unit of work that is run against a
+ * connection borrowed from the ConnectionManager.
+ *
+ * @param <T> the type of the value produced by the work
+ */
+@FunctionalInterface
+interface SqlFunction<T> {
+
+    /**
+     * Function used to run the work against a connection.
+     *
+     * @param conn the connection to use, only valid for the duration of the call
+     * @return the value produced by the work
+     * @throws SQLException if a database access error occurs
+     */
+    T apply(PooledConnection conn) throws SQLException;
+}
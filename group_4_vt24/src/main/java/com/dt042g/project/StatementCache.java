@@ -0,0 +1,94 @@
+package com.dt042g.project;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least-recently-used cache of prepared statements for a single connection,
+ * keyed by their SQL text. Statements pushed out of the cache and statements
+ * left when the cache is closed are closed right away instead of waiting for
+ * the garbage collector.
+ */
+final class StatementCache implements AutoCloseable {
+    private final Connection connection;
+    private final CacheStats stats;
+    private final LinkedHashMap<String, PreparedStatement> statements;
+
+    /**
+     * Constructor for the StatementCache class.
+     *
+     * @param connection the connection that statements are prepared on
+     * @param capacity the maximum number of statements to keep
+     * @param stats the counters to record hits and misses in
+     */
+    StatementCache(Connection connection, int capacity, CacheStats stats) {
+        this.connection = connection;
+        this.stats = stats;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() <= capacity) return false;
+
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Function used to get a prepared statement for the specified SQL, compiling
+     * it only if it is not already cached. The statement is owned by the cache
+     * and must not be closed by the caller, but any result sets must be.
+     *
+     * @param sql the SQL text of the statement
+     * @return a prepared statement with its parameters cleared
+     * @throws SQLException if the statement could not be prepared
+     */
+    PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement != null && !statement.isClosed()) {
+            stats.recordHit();
+            statement.clearParameters();
+            return statement;
+        }
+
+        stats.recordMiss();
+        statement = connection.prepareStatement(sql);
+        statements.put(sql, statement);
+        return statement;
+    }
+
+    /**
+     * Getter function used to get the number of statements currently cached.
+     *
+     * @return the number of cached statements
+     */
+    int size() {
+        return statements.size();
+    }
+
+    /**
+     * Function used to close every cached statement and empty the cache.
+     */
+    @Override
+    public void close() {
+        statements.values().forEach(StatementCache::closeQuietly);
+        statements.clear();
+    }
+
+    /**
+     * Private function used to close a statement that is being discarded.
+     *
+     * @param statement the statement to close
+     */
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            // Nothing to do, the statement is being thrown away
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.dt042g.project;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Record holding one row of the "task" table.
+ *
+ * @param id the id of the task
+ * @param name the name of the task
+ * @param information the description of the task
+ * @param category the name of the category the task belongs to
+ * @param dueDate the date the task is due, or null if the stored date is not a valid date
+ */
+public record Task(long id, String name, String information, String category, LocalDate dueDate) {
+
+    /** The format due dates are written in, e.g. 2024-05-01. Dates that do not exist are rejected. */
+    public static final DateTimeFormatter DUE_DATE_FORMAT =
+            DateTimeFormatter.ofPattern("uuuu-MM-dd").withResolverStyle(ResolverStyle.STRICT);
+
+    /**
+     * Function used to parse a due date written in the yyyy-MM-dd format.
+     *
+     * @param date the text to parse
+     * @return the parsed date, or null if the text is not a valid date
+     */
+    public static LocalDate parseDueDate(String date) {
+        if (date == null) return null;
+        try {
+            return LocalDate.parse(date, DUE_DATE_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Function used to get the column values of the task as strings, in the
+     * order of the "task" table, as used by {@link Database#addTask(List)}.
+     *
+     * @return list of the name, information, category and due date of the task
+     */
+    public List<String> toValues() {
+        List<String> values = new ArrayList<>();
+        values.add(name);
+        values.add(information);
+        values.add(category);
+        values.add(dueDate == null ? "" : DUE_DATE_FORMAT.format(dueDate));
+        return values;
+    }
+}
@@ -0,0 +1,46 @@
+package com.dt042g.project;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Base64;
+
+/**
+ * Record holding one page of tasks, ordered by name, together with the
+ * cursor used to fetch the page after it. The cursor is opaque to callers and
+ * should only be passed back to {@link Database#getTaskPage(String, int)}.
+ *
+ * @param tasks the ids and names of the tasks on the page
+ * @param nextCursor the cursor of the next page, or null if this is the last page
+ */
+public record TaskPage(ArrayDeque<TaskSummary> tasks, String nextCursor) {
+
+    /**
+     * Function used to check whether there are more tasks after this page.
+     *
+     * @return true if there is a next page, false otherwise
+     */
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+
+    /**
+     * Function used to create the cursor of the page starting after a task.
+     *
+     * @param name the name of the last task on the current page
+     * @return the cursor of the next page
+     */
+    static String cursorAfter(String name) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(name.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Function used to read the name of the task a cursor continues after.
+     *
+     * @param cursor a cursor returned with a previous page
+     * @return the name of the last task on the previous page
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+    static String nameBefore(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+}
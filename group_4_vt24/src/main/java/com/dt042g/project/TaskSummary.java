@@ -0,0 +1,11 @@
+package com.dt042g.project;
+
+/**
+ * Record holding the id and name of a task, which is all a list of tasks
+ * needs to show a task and open it.
+ *
+ * @param id the id of the task
+ * @param name the name of the task
+ */
+public record TaskSummary(long id, String name) {
+}
@@ -0,0 +1,266 @@
+package com.dt042g.project;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * In-memory index answering substring searches over the name and category
+ * of every task, with the same matching as {@code name LIKE '%query%' OR
+ * category LIKE '%query%'}: ASCII letters match regardless of case. Every
+ * run of three characters in a name or category maps to the ids of the tasks
+ * containing it, so a query is answered by intersecting the lists of the
+ * query's own trigrams and then checking the few remaining tasks, instead
+ * of reading every row. Queries shorter than three characters are checked
+ * against every task.
+ *
+ * The index is read from the database once and then kept up to date by the
+ * Database class as tasks are added and deleted, while holding the writer
+ * connection.
+ */
+final class TrigramIndex {
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final TreeMap<Long, Entry> tasks = new TreeMap<>();
+    private volatile boolean loaded;
+
+    /**
+     * Record holding the text of a task that searches are matched against.
+     *
+     * @param name the name of the task
+     * @param category the category of the task, may be null
+     */
+    private record Entry(String name, String category) {
+    }
+
+    /**
+     * Function used to check whether the index has been read from the database.
+     *
+     * @return true if the index is loaded, false otherwise
+     */
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Function used to read every task from the database, replacing
+     * anything already in the index.
+     *
+     * @param conn the writer connection
+     * @throws SQLException if the tasks could not be read
+     */
+    synchronized void load(PooledConnection conn) throws SQLException {
+        postings.clear();
+        tasks.clear();
+
+        // reading in id order makes every posting list a series of appends
+        try (ResultSet rs = conn.prepare("SELECT task_id, name, category FROM task ORDER BY task_id").executeQuery()) {
+            while (rs.next()) {
+                index(rs.getLong(1), rs.getString(2), rs.getString(3));
+            }
+        }
+        loaded = true;
+    }
+
+    /**
+     * Function used to record a task added to the database. Does nothing
+     * if the index has not been loaded yet, as loading will read the task.
+     *
+     * @param id the id of the task
+     * @param name the name of the task
+     * @param category the category of the task
+     */
+    synchronized void add(long id, String name, String category) {
+        if (loaded) index(id, name, category);
+    }
+
+    /**
+     * Function used to record a task deleted from the database.
+     *
+     * @param id the id of the task
+     */
+    synchronized void remove(long id) {
+        Entry entry = tasks.remove(id);
+        if (entry == null) return;
+
+        for (long trigram : trigrams(entry)) {
+            PostingList list = postings.get(trigram);
+            if (list != null && list.remove(id) && list.size() == 0) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    /**
+     * Function used to find the tasks whose name or category contains a query.
+     *
+     * @param query the text to search for
+     * @return a Deque of the matching tasks, ordered by id
+     */
+    synchronized ArrayDeque<TaskSummary> search(String query) {
+        ArrayDeque<TaskSummary> matches = new ArrayDeque<>();
+
+        if (query.length() < 3) {
+            for (Map.Entry<Long, Entry> task : tasks.entrySet()) {
+                addIfMatching(matches, task.getKey(), task.getValue(), query);
+            }
+            return matches;
+        }
+
+        // intersect the posting lists, starting from the shortest
+        List<PostingList> lists = new ArrayList<>();
+        for (long trigram : trigrams(query)) {
+            PostingList list = postings.get(trigram);
+            if (list == null) return matches;
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+
+        long[] candidates = lists.get(0).toArray();
+        int candidateCount = candidates.length;
+        for (int i = 1; i < lists.size() && candidateCount > 0; i++) {
+            candidateCount = intersect(candidates, candidateCount, lists.get(i).toArray());
+        }
+
+        // the trigrams can appear apart from each other, so check the candidates
+        for (int i = 0; i < candidateCount; i++) {
+            addIfMatching(matches, candidates[i], tasks.get(candidates[i]), query);
+        }
+        return matches;
+    }
+
+    /**
+     * Function used to narrow down earlier search results to the tasks that
+     * also contain a longer query, without looking at any other task. Tasks
+     * deleted since the earlier search are left out.
+     *
+     * @param previous the results of a query contained in the new query
+     * @param query the text to search for
+     * @return a Deque of the matching tasks, in the order of the earlier results
+     */
+    synchronized ArrayDeque<TaskSummary> refine(Collection<TaskSummary> previous, String query) {
+        ArrayDeque<TaskSummary> matches = new ArrayDeque<>();
+        for (TaskSummary task : previous) {
+            Entry entry = tasks.get(task.id());
+            if (entry != null) addIfMatching(matches, task.id(), entry, query);
+        }
+        return matches;
+    }
+
+    /**
+     * Function used to get the number of distinct trigrams in the index.
+     *
+     * @return the number of trigrams
+     */
+    synchronized int trigramCount() {
+        return postings.size();
+    }
+
+    /**
+     * Function used to check whether a text contains a query, ignoring the
+     * case of ASCII letters in the same way as the SQL LIKE operator.
+     *
+     * @param text the text to search in, may be null
+     * @param query the text to search for
+     * @return true if the text contains the query, false otherwise
+     */
+    static boolean containsIgnoreCase(String text, String query) {
+        if (text == null) return false;
+
+        int length = query.length();
+        for (int start = 0; start + length <= text.length(); start++) {
+            int i = 0;
+            while (i < length && fold(text.charAt(start + i)) == fold(query.charAt(i))) {
+                i++;
+            }
+            if (i == length) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Private function used to add a task to the posting lists of its trigrams.
+     *
+     * @param id the id of the task
+     * @param name the name of the task
+     * @param category the category of the task
+     */
+    private void index(long id, String name, String category) {
+        Entry entry = new Entry(name, category);
+        tasks.put(id, entry);
+        for (long trigram : trigrams(entry)) {
+            postings.computeIfAbsent(trigram, key -> new PostingList()).add(id);
+        }
+    }
+
+    /**
+     * Private function used to add a task to the matches if its name or
+     * category contains the query.
+     *
+     * @param matches the matches to add to
+     * @param id the id of the task
+     * @param entry the name and category of the task
+     * @param query the text to search for
+     */
+    private static void addIfMatching(ArrayDeque<TaskSummary> matches, long id, Entry entry, String query) {
+        if (containsIgnoreCase(entry.name(), query) || containsIgnoreCase(entry.category(), query)) {
+            matches.add(new TaskSummary(id, entry.name()));
+        }
+    }
+
+    /**
+     * Private function used to keep the ids present in both of two sorted arrays.
+     *
+     * @param candidates the current candidates, overwritten with the result
+     * @param candidateCount the number of candidates in use
+     * @param ids the ids to intersect with
+     * @return the number of candidates left
+     */
+    private static int intersect(long[] candidates, int candidateCount, long[] ids) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < candidateCount && j < ids.length; i++) {
+            while (j < ids.length && ids[j] < candidates[i]) j++;
+            if (j < ids.length && ids[j] == candidates[i]) candidates[kept++] = candidates[i];
+        }
+        return kept;
+    }
+
+    /**
+     * Private function used to get the distinct trigrams of the name and category of a task.
+     *
+     * @param entry the task
+     * @return the trigrams
+     */
+    private static Set<Long> trigrams(Entry entry) {
+        Set<Long> trigrams = trigrams(entry.name());
+        if (entry.category() != null) trigrams.addAll(trigrams(entry.category()));
+        return trigrams;
+    }
+
+    /**
+     * Private function used to get the distinct trigrams of a text, each
+     * packed into a long from its three case-folded characters.
+     *
+     * @param text the text
+     * @return the trigrams
+     */
+    private static Set<Long> trigrams(String text) {
+        Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add(((long) fold(text.charAt(i)) << 32)
+                    | ((long) fold(text.charAt(i + 1)) << 16)
+                    | fold(text.charAt(i + 2)));
+        }
+        return trigrams;
+    }
+
+    /**
+     * Private function used to lower-case a character if it is an ASCII letter.
+     *
+     * @param c the character
+     * @return the folded character
+     */
+    private static char fold(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+}
@@ -0,0 +1,219 @@
+package com.dt042g.project;
+
+import org.sqlite.SQLiteConfig;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Class describing how SQLite connections are tuned when they are opened:
+ * journal mode, synchronous level, memory-mapped I/O, page cache size,
+ * temp store and busy timeout, together with the database url and the
+ * number of pooled reader connections.
+ *
+ * A profile starts from one of the named presets and can then be adjusted
+ * key by key, first from the file "database.properties" in the working
+ * directory and then from system properties prefixed with "todo.db.",
+ * for example {@code -Dtodo.db.profile=durable -Dtodo.db.mmapSize=0}.
+ */
+final class TuningProfile {
+    static final String DURABLE = "durable";
+    static final String THROUGHPUT = "throughput";
+    static final String IN_MEMORY_TEST = "in-memory-test";
+
+    private static final String DEFAULT_PROFILE = THROUGHPUT;
+    private static final String PROPERTIES_FILE = "database.properties";
+    private static final String SYSTEM_PREFIX = "todo.db.";
+    private static final String FILE_URL = "jdbc:sqlite:todo_list_database.db";
+    private static final String MEMORY_URL = "jdbc:sqlite:file:todo_list_test?mode=memory&cache=shared";
+
+    private final String name;
+    private final String url;
+    private final SQLiteConfig.JournalMode journalMode;
+    private final SQLiteConfig.SynchronousMode synchronous;
+    private final long mmapSize;
+    private final int cacheSize;
+    private final SQLiteConfig.TempStore tempStore;
+    private final int busyTimeout;
+    private final int readerPoolSize;
+
+    /**
+     * Private constructor for the TuningProfile class, profiles are created
+     * through the presets or by loading them from configuration.
+     */
+    private TuningProfile(String name, String url, SQLiteConfig.JournalMode journalMode,
+                          SQLiteConfig.SynchronousMode synchronous, long mmapSize, int cacheSize,
+                          SQLiteConfig.TempStore tempStore, int busyTimeout, int readerPoolSize) {
+        this.name = name;
+        this.url = url;
+        this.journalMode = journalMode;
+        this.synchronous = synchronous;
+        this.mmapSize = mmapSize;
+        this.cacheSize = cacheSize;
+        this.tempStore = tempStore;
+        this.busyTimeout = busyTimeout;
+        this.readerPoolSize = readerPoolSize;
+    }
+
+    /**
+     * Function used to get one of the named presets.
+     * <ul>
+     *     <li>"durable": rollback journal and full fsync on every commit, no memory mapping.</li>
+     *     <li>"throughput": write-ahead log so reads run next to writes, fsync only at
+     *     checkpoints, 256 MB of memory-mapped I/O and a 16 MB page cache.</li>
+     *     <li>"in-memory-test": a shared in-memory database that is never written to disk,
+     *     read through the writer connection since it only lives as long as it is open.</li>
+     * </ul>
+     *
+     * @param name the name of the preset
+     * @return the preset profile
+     * @throws IllegalArgumentException if there is no preset with the specified name
+     */
+    static TuningProfile preset(String name) {
+        return switch (name) {
+            case DURABLE -> new TuningProfile(DURABLE, FILE_URL, SQLiteConfig.JournalMode.DELETE,
+                    SQLiteConfig.SynchronousMode.FULL, 0, -2000, SQLiteConfig.TempStore.DEFAULT, 5000, 3);
+            case THROUGHPUT -> new TuningProfile(THROUGHPUT, FILE_URL, SQLiteConfig.JournalMode.WAL,
+                    SQLiteConfig.SynchronousMode.NORMAL, 268_435_456L, -16000, SQLiteConfig.TempStore.MEMORY,
+                    5000, 3);
+            case IN_MEMORY_TEST -> new TuningProfile(IN_MEMORY_TEST, MEMORY_URL, SQLiteConfig.JournalMode.MEMORY,
+                    SQLiteConfig.SynchronousMode.OFF, 0, -16000, SQLiteConfig.TempStore.MEMORY, 1000, 0);
+            default -> throw new IllegalArgumentException("Unknown database profile: " + name);
+        };
+    }
+
+    /**
+     * Function used to load the profile to use from the properties file and
+     * system properties, falling back to the default preset.
+     *
+     * @return the configured profile
+     * @throws IllegalStateException if the properties file exists but could not be read
+     * @throws IllegalArgumentException if a value is not valid for its setting
+     */
+    static TuningProfile load() {
+        Properties properties = new Properties();
+
+        File file = new File(PROPERTIES_FILE);
+        if (file.isFile()) {
+            try (Reader reader = new FileReader(file)) {
+                properties.load(reader);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not read " + PROPERTIES_FILE, e);
+            }
+        }
+
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith(SYSTEM_PREFIX)) {
+                properties.setProperty(key.substring(SYSTEM_PREFIX.length()), System.getProperty(key));
+            }
+        }
+        return fromProperties(properties);
+    }
+
+    /**
+     * Function used to build a profile from a preset named by the "profile" key,
+     * with every other key overriding a single setting of that preset.
+     *
+     * @param properties the properties to read
+     * @return the configured profile
+     * @throws IllegalArgumentException if a value is not valid for its setting
+     */
+    static TuningProfile fromProperties(Properties properties) {
+        TuningProfile base = preset(properties.getProperty("profile", DEFAULT_PROFILE).trim());
+
+        return new TuningProfile(
+                base.name,
+                properties.getProperty("url", base.url).trim(),
+                enumValue(SQLiteConfig.JournalMode.class, properties.getProperty("journalMode"), base.journalMode),
+                enumValue(SQLiteConfig.SynchronousMode.class, properties.getProperty("synchronous"), base.synchronous),
+                Long.parseLong(properties.getProperty("mmapSize", String.valueOf(base.mmapSize)).trim()),
+                Integer.parseInt(properties.getProperty("cacheSize", String.valueOf(base.cacheSize)).trim()),
+                enumValue(SQLiteConfig.TempStore.class, properties.getProperty("tempStore"), base.tempStore),
+                Integer.parseInt(properties.getProperty("busyTimeout", String.valueOf(base.busyTimeout)).trim()),
+                Integer.parseInt(properties.getProperty("readers", String.valueOf(base.readerPoolSize)).trim()));
+    }
+
+    /**
+     * Function used to apply the profile to the configuration of a connection
+     * that is about to be opened. The journal mode is persistent in the database
+     * file, so it is only set on the writer connection.
+     *
+     * @param config the configuration to apply the profile to
+     * @param readOnly whether the connection is a read-only reader
+     */
+    void applyTo(SQLiteConfig config, boolean readOnly) {
+        config.setReadOnly(readOnly);
+        if (!readOnly) {
+            config.setJournalMode(journalMode);
+        }
+        config.setSynchronous(synchronous);
+        config.setPragma(SQLiteConfig.Pragma.MMAP_SIZE, String.valueOf(mmapSize));
+        config.setCacheSize(cacheSize);
+        config.setTempStore(tempStore);
+        config.setBusyTimeout(busyTimeout);
+    }
+
+    /**
+     * Getter function used to get the name of the preset the profile is based on.
+     *
+     * @return the preset name
+     */
+    String name() {
+        return name;
+    }
+
+    /**
+     * Getter function used to get the JDBC url of the database.
+     *
+     * @return the database url
+     */
+    String url() {
+        return url;
+    }
+
+    /**
+     * Getter function used to get the journal mode used by the database.
+     *
+     * @return the journal mode
+     */
+    SQLiteConfig.JournalMode journalMode() {
+        return journalMode;
+    }
+
+    /**
+     * Getter function used to get the size of the memory-mapped I/O region.
+     *
+     * @return the mmap size in bytes, 0 if memory mapping is disabled
+     */
+    long mmapSize() {
+        return mmapSize;
+    }
+
+    /**
+     * Getter function used to get the number of read-only connections to pool.
+     * With no readers, reads go through the writer connection.
+     *
+     * @return the reader pool size
+     */
+    int readerPoolSize() {
+        return readerPoolSize;
+    }
+
+    /**
+     * Private function used to parse an enum setting, ignoring case.
+     *
+     * @param type the enum type of the setting
+     * @param value the configured value, or null if it is not configured
+     * @param fallback the value to use if nothing is configured
+     * @param <E> the enum type of the setting
+     * @return the parsed or fallback value
+     */
+    private static <E extends Enum<E>> E enumValue(Class<E> type, String value, E fallback) {
+        if (value == null || value.isBlank()) return fallback;
+        return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+    }
+}
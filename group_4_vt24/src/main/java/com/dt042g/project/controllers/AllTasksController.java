@@ -1,6 +1,9 @@
 package com.dt042g.project.controllers;
 
+import com.dt042g.project.AsyncDatabase;
 import com.dt042g.project.Database;
+import com.dt042g.project.Task;
+import com.dt042g.project.TaskPage;
 import com.dt042g.project.views.*;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
@@ -14,11 +17,9 @@ import java.awt.event.ActionListener;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller class that implements ControllerInterface, responsible
@@ -30,11 +31,19 @@ import java.util.List;
  */
 public class AllTasksController implements ControllerInterface, ActionListener {
 
+    private static final int pageSize = 50;
+    private static final int suggestionLimit = 8;
+
     private final ActionListener listener;
     private SearchBar searchBar;
     private TasksPanel tasksPanel;
     private TaskForm taskForm;
     private ImportButton importButton;
+    private TaskSearch pendingSearch;
+    private CompletableFuture<TaskPage> pendingPage;
+    private CompletableFuture<List<String>> pendingSuggestions;
+    private String nextCursor;
+    private long shownVersion;
 
     /**
      * Constructor for the class, adds an actionListener to the
@@ -48,15 +57,13 @@ public class AllTasksController implements ControllerInterface, ActionListener {
 
     /**
      * Function used to add the controller's components to the
-     * AppWindow frame.
+     * AppWindow frame. The list of tasks is filled in page by page
+     * as it is loaded from the database.
      *
      * @param window AppWindow JFrame to add components to.
      */
     @Override
     public void doWork(AppWindow window) {
-        // retrieves task names from database
-        ArrayDeque<String> tasks = Database.getTaskNames();
-
         SwingUtilities.invokeLater(() -> {
             window.clearWindow();
 
@@ -69,8 +76,6 @@ public class AllTasksController implements ControllerInterface, ActionListener {
             searchBar = new SearchBar(this);
             window.addPanel(searchBar);
             tasksPanel = new TasksPanel();
-
-            tasksPanel.addTasks(tasks, this);
             window.addPanel(tasksPanel);
 
             taskForm = new TaskForm(this);
@@ -80,53 +85,172 @@ public class AllTasksController implements ControllerInterface, ActionListener {
             window.setVisible(true);
         });
 
+        // retrieves the first page of task names from database without blocking the window
+        shownVersion = Database.getTaskVersion();
+        loadPage(null);
+    }
+
+    /**
+     * Function used to show the controller's components again after
+     * another controller was shown. The list is only searched again
+     * if tasks were added or deleted while it was hidden, and then
+     * only the rows that changed are updated.
+     *
+     * @param window AppWindow instance that the controller will use.
+     */
+    @Override
+    public void resume(AppWindow window) {
+        if(Database.getTaskVersion() != shownVersion) {
+            performSearch(searchBar.getQuery());
+        }
+    }
+
+    /**
+     * Function used to stop the controller once its components have
+     * been removed from the window, cancelling the searches, pages and
+     * category suggestions still being loaded for them.
+     */
+    @Override
+    public void dispose() {
+        if(pendingSearch != null) {
+            pendingSearch.cancel(false);
+            pendingSearch = null;
+        }
+        if(pendingPage != null) {
+            pendingPage.cancel(false);
+            pendingPage = null;
+        }
+        if(pendingSuggestions != null) {
+            pendingSuggestions.cancel(false);
+            pendingSuggestions = null;
+        }
+        if(searchBar != null) {
+            searchBar.cancelSearch();
+        }
+    }
+
+    /**
+     * Private function used to load a page of task names from the
+     * database in the background and show it in the "TasksPanel".
+     * The first page replaces the list, later pages are added to
+     * the end of it. A page is dropped if a search replaced the
+     * list while it was loading.
+     *
+     * @param cursor the cursor of the page to load, or null to
+     * load the first page.
+     */
+    private void loadPage(String cursor) {
+        CompletableFuture<TaskPage> load = AsyncDatabase.submit(() -> Database.getTaskPage(cursor, pageSize));
+        pendingPage = load;
+        SwingUtilities.invokeLater(() -> tasksPanel.setLoading(true));
+
+        load.thenAcceptAsync(page -> {
+            if(load == pendingPage) {
+                tasksPanel.setLoading(false);
+                if(cursor == null) {
+                    tasksPanel.addTasks(page.tasks(), this, page.hasMore());
+                }
+                else {
+                    tasksPanel.appendTasks(page.tasks(), page.hasMore());
+                }
+                nextCursor = page.nextCursor();
+            }
+        }, SwingUtilities::invokeLater);
     }
 
     /**
      * Private function used to perform a query to the
      * database and add the result to a "TasksPanel"
-     * variable.
+     * variable. The query runs in the background, showing
+     * the tasks as they are found, and a search that has
+     * been replaced by a newer one is cancelled. An empty
+     * query goes back to the paged list of all tasks.
+     * See {@link TaskSearch} for how the tasks are found.
      *
      * @param query search word used to find a specific
      * in the database.
      */
     private void performSearch(String query) {
-        ArrayDeque<String> tasks = Database.getSearchedTaskNames(query);
+        if(pendingSearch != null) {
+            pendingSearch.cancel(false);
+        }
+        shownVersion = Database.getTaskVersion();
+        if(pendingPage != null) {
+            pendingPage.cancel(false);
+            pendingPage = null;
+        }
+        nextCursor = null;
 
-        SwingUtilities.invokeLater(() -> {
-            tasksPanel.addTasks(tasks, this);
-        });
+        if(query.isBlank()) {
+            pendingSearch = null;
+            loadPage(null);
+            return;
+        }
+
+        tasksPanel.setLoading(true);
+        pendingSearch = AsyncDatabase.execute(new TaskSearch(query, tasksPanel, this));
+    }
+
+    /**
+     * Function used to suggest the categories starting with the text
+     * typed into the category field of the "TaskForm", so that only
+     * existing categories are submitted. The names are looked up in
+     * the background, and suggestions replaced by newer ones are dropped.
+     *
+     * @param prefix the text typed into the category field.
+     */
+    private void suggestCategories(String prefix) {
+        if(pendingSuggestions != null) {
+            pendingSuggestions.cancel(false);
+        }
+        if(prefix.isBlank()) {
+            pendingSuggestions = null;
+            taskForm.showCategorySuggestions(List.of());
+            return;
+        }
+
+        CompletableFuture<List<String>> suggest =
+                AsyncDatabase.submit(() -> Database.getCategoryNamesStartingWith(prefix, suggestionLimit));
+        pendingSuggestions = suggest;
+
+        suggest.thenAcceptAsync(names -> {
+            if(suggest == pendingSuggestions) {
+                taskForm.showCategorySuggestions(names);
+            }
+        }, SwingUtilities::invokeLater);
     }
 
     /**
-     * Function used to add a new task to the database.
+     * Function used to add a new task to the database. The task
+     * is written in the background, see {@link DatabaseWrite}.
      *
+     * @return a future completed with true if the task was added,
+     * or false if the form was not valid or the task was refused.
      */
-    private boolean addTask() {
-        if(taskForm.isFilledOut() && isCorrectFormat(taskForm.getDate()) && isValidName(taskForm.getName())) {
+    private CompletableFuture<Boolean> addTask() {
+        if(taskForm.isFilledOut() && isCorrectFormat(taskForm.getDate())) {
             List<String> newTask = new ArrayList<>();
             newTask.add(taskForm.getName());
             newTask.add(taskForm.getInfo());
             newTask.add(taskForm.getCategory());
             newTask.add(taskForm.getDate());
 
-            try {
-                Database.addTask(newTask);
-            } catch (IllegalArgumentException | IllegalStateException e) { // alerts user
-                JOptionPane.showMessageDialog(null, e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            }
-            return true;
+            return DatabaseWrite.run(() -> Database.addTask(newTask));
         }
-        return false;
+        return CompletableFuture.completedFuture(false);
     }
 
     /**
      * Function used to add a task with values from a specified JSON file.
      *
+     * The task is written in the background, see {@link DatabaseWrite}.
+     *
      * @param file the file to read from.
+     * @return a future completed with true if the task was added, or false
+     * if the file did not hold a valid task or the task was refused.
      * @test display message that json file doesn't contain correct fields.
      */
-    private void importTask(File file) {
+    private CompletableFuture<Boolean> importTask(File file) {
         JSONParser parser = new JSONParser();
         try {
             List<String> newTask = new ArrayList<>();
@@ -135,15 +259,16 @@ public class AllTasksController implements ControllerInterface, ActionListener {
             if(jsonObject.containsKey("name") && jsonObject.containsKey("date") && jsonObject.containsKey("description")
             && jsonObject.containsKey("category") && jsonObject.size() == 4) {
 
-                if (isValidName((String) jsonObject.get("name")) && isCorrectFormat((String) jsonObject.get("date"))) {
+                if (isCorrectFormat((String) jsonObject.get("date"))) {
                     newTask.add((String) jsonObject.get("name"));
                     newTask.add((String) jsonObject.get("description"));
                     newTask.add((String) jsonObject.get("category"));
                     newTask.add((String) jsonObject.get("date"));
 
-                    Database.addTask(newTask);
+                    return DatabaseWrite.run(() -> Database.addTask(newTask));
                 }
             }
+            return CompletableFuture.completedFuture(false);
 
         } catch (IOException | ParseException e) {
             throw new RuntimeException(e);
@@ -159,40 +284,7 @@ public class AllTasksController implements ControllerInterface, ActionListener {
      * date is in the correct format or not.
      */
     private boolean isCorrectFormat(String date) {
-        String validFormat = "yyyy-MM-dd";
-        SimpleDateFormat format = new SimpleDateFormat(validFormat);
-        try {
-            Date tempDate = format.parse(date);
-
-            if(format.format(tempDate).equals(date)) {
-                return true;
-            }
-
-        } catch (java.text.ParseException e) {
-            return false;
-        }
-        return false;
-    }
-
-    /**
-     * Function used to check whether the name of a task is valid or not.
-     * Because the program's components uses strings passed with eventListeners to,
-     * a task shouldn't be able to be named as one of these events.
-     *
-     * @param name the string value to check.
-     * @return boolean result, specifying whether the
-     * name is valid or not.
-     */
-    private boolean isValidName(String name) {
-        String[] array = {"return", "back", "search", "submit_task", "submit_category", "delete", "import_task",
-                "export_task", "switch", "switch_to_tasks", "switch_to_categories"};
-
-        for(String invalidName: array) {
-            if(name.equals(invalidName)) {
-                return false;
-            }
-        }
-        return true;
+        return Task.parseDueDate(date) != null;
     }
 
     /**
@@ -207,8 +299,21 @@ public class AllTasksController implements ControllerInterface, ActionListener {
         if(e.getActionCommand().equals("search")) {
             performSearch(searchBar.getQuery());
         }
+        else if(e.getActionCommand().equals("load_more")) {
+            if(nextCursor != null) {
+                loadPage(nextCursor);
+            }
+        }
         else if(e.getActionCommand().equals("submit_task")) {
-            addTask();
+            // refreshing the list only changes the rows of the tasks that were added
+            addTask().thenAccept(added -> {
+                if(added) {
+                    performSearch(searchBar.getQuery());
+                }
+            });
+        }
+        else if(e.getActionCommand().equals("category_changed")) {
+            suggestCategories(taskForm.getCategory());
         }
         else if(e.getActionCommand().equals("import_task")) {
             JFileChooser fileChooser = new JFileChooser(FileSystemView.getFileSystemView().getHomeDirectory());
@@ -216,12 +321,19 @@ public class AllTasksController implements ControllerInterface, ActionListener {
 
             int result = fileChooser.showOpenDialog(null);
             if(result == JFileChooser.APPROVE_OPTION) {
-                importTask(fileChooser.getSelectedFile());
+                importTask(fileChooser.getSelectedFile()).thenAccept(added -> {
+                    if(added) {
+                        performSearch(searchBar.getQuery());
+                    }
+                });
             }
         }
         else if(e.getActionCommand().equals("switch")) {
             listener.actionPerformed(new ActionEvent(this, ActionEvent.ACTION_PERFORMED, "switch_to_categories"));
         }
+        else if(e instanceof TaskSelectedEvent selected) {
+            listener.actionPerformed(new TaskSelectedEvent(this, selected.getTaskId()));
+        }
         else {
             listener.actionPerformed(new ActionEvent(this,
                     ActionEvent.ACTION_PERFORMED, e.getActionCommand()));
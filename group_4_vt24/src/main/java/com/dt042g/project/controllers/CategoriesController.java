@@ -1,5 +1,6 @@
 package com.dt042g.project.controllers;
 
+import com.dt042g.project.AsyncDatabase;
 import com.dt042g.project.Database;
 import com.dt042g.project.views.*;
 
@@ -8,7 +9,10 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller class used to manage/view the categories stored
@@ -18,11 +22,15 @@ import java.util.List;
  */
 public class CategoriesController implements ControllerInterface, ActionListener {
 
+    private static final int fuzzyDistance = 2;
+
     private final ActionListener listener;
     private SearchBar searchBar;
     private SwitchButton switchButton;
     private CategoryForm categoryForm;
     private CategoriesPanel categoriesPanel;
+    private CompletableFuture<HashMap<String, String>> pendingSearch;
+    private long shownVersion;
 
     /**
      * Constructor class for CategoriesController class, sets
@@ -37,14 +45,13 @@ public class CategoriesController implements ControllerInterface, ActionListener
 
     /**
      * Function used to add the view components to the AppWindow.
+     * The list of categories is filled in once it has been loaded
+     * from the database.
      *
      * @param window AppWindow instance that the controller will use.
      */
     @Override
     public void doWork(AppWindow window) {
-        // retrieves category names from database
-        HashMap<String, String> categories = Database.getCategories();
-
         SwingUtilities.invokeLater(()-> {
             window.clearWindow();
 
@@ -55,8 +62,6 @@ public class CategoriesController implements ControllerInterface, ActionListener
             window.addPanel(switchButton);
 
             categoriesPanel = new CategoriesPanel();
-            categoriesPanel.addCategories(categories, this);
-
             window.addPanel(categoriesPanel);
 
             categoryForm = new CategoryForm(this);
@@ -64,57 +69,131 @@ public class CategoriesController implements ControllerInterface, ActionListener
 
             window.setVisible(true);
         });
+
+        // retrieves every category, in alphabetical order, without blocking the window
+        performSearch("");
+    }
+
+    /**
+     * Function used to show the controller's components again after
+     * another controller was shown. The list is only searched again
+     * if categories were added or deleted while it was hidden, and then
+     * only the rows that changed are updated.
+     *
+     * @param window AppWindow instance that the controller will use.
+     */
+    @Override
+    public void resume(AppWindow window) {
+        if(Database.getCategoryVersion() != shownVersion) {
+            performSearch(searchBar.getQuery());
+        }
+    }
+
+    /**
+     * Function used to stop the controller once its components have
+     * been removed from the window, cancelling the search still being
+     * loaded for them.
+     */
+    @Override
+    public void dispose() {
+        if(pendingSearch != null) {
+            pendingSearch.cancel(false);
+            pendingSearch = null;
+        }
+        if(searchBar != null) {
+            searchBar.cancelSearch();
+        }
     }
 
     /**
-     * Function used to add a new category to the database.
+     * Function used to add a new category to the database. The
+     * category is written in the background, see {@link DatabaseWrite}.
      *
+     * @return a future completed with true if the category was added,
+     * or false if the form was not filled out or the category was refused.
      */
-    private void addCategory() {
+    private CompletableFuture<Boolean> addCategory() {
         if(categoryForm.isFilledOut()) {
             List<String> newCategory = new ArrayList<>();
             newCategory.add(categoryForm.getName());
             newCategory.add(categoryForm.getInfo());
 
-            try {
-                Database.addCategory(newCategory);
-            } catch (IllegalArgumentException e) {
-                JOptionPane.showMessageDialog(null, e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            return DatabaseWrite.run(() -> Database.addCategory(newCategory));
         }
+        return CompletableFuture.completedFuture(false);
     }
 
     /**
      * Function used to search for categories containing a
      * specified string in the database, and adding the results to
-     * the list of categories.
+     * the list of categories. The query runs in the background, and
+     * a search that has been replaced by a newer one is cancelled,
+     * or its result dropped if it already finished. See
+     * {@link #findCategories(String)} for how the categories are found.
      *
      * @param query search word used to find a specific
      * in the database.
      */
     private void performSearch(String query) {
-        SwingUtilities.invokeLater(() -> {
-            categoriesPanel.addCategories(Database.getSearchedCategories(query), this);
-        });
+        if(pendingSearch != null) {
+            pendingSearch.cancel(false);
+        }
+        shownVersion = Database.getCategoryVersion();
+
+        CompletableFuture<HashMap<String, String>> search =
+                AsyncDatabase.submit(() -> findCategories(query));
+        pendingSearch = search;
+
+        search.thenAcceptAsync(categories -> {
+            if(search == pendingSearch) {
+                categoriesPanel.addCategories(categories, this);
+            }
+        }, SwingUtilities::invokeLater);
+    }
+
+    /**
+     * Function used to find the categories to show for a search query.
+     * The categories starting with the query come first, in alphabetical
+     * order, followed by the other categories containing the query.
+     * A query matching no category is retried allowing typos.
+     *
+     * @param query the search query.
+     * @return the categories to show, in the order to show them.
+     */
+    private static HashMap<String, String> findCategories(String query) {
+        HashMap<String, String> matches = Database.getSearchedCategories(query);
+        if(matches.isEmpty()) {
+            return Database.getFuzzyCategories(query, fuzzyDistance);
+        }
+
+        LinkedHashMap<String, String> categories = new LinkedHashMap<>();
+        for(String name: Database.getCategoryNamesStartingWith(query, matches.size())) {
+            if(matches.containsKey(name)) {
+                categories.put(name, matches.get(name));
+            }
+        }
+        for(Map.Entry<String, String> category: matches.entrySet()) {
+            categories.putIfAbsent(category.getKey(), category.getValue());
+        }
+        return categories;
     }
 
     /**
      * Function used to delete a specified category from the database.
+     * The category is deleted in the background, see {@link DatabaseWrite}.
      *
      * @param name the name of the category to delete.
-     * @return boolean representing the result of attempting to delete
-     * the category.
+     * @return a future completed with true if the category was deleted,
+     * or false if it does not exist or is still used by a task.
      */
-    private boolean deleteCategory(String name) {
-        if(!Database.getCategory(name).isEmpty()) {
-            try {
-                Database.deleteCategory(name);
-            } catch (IllegalArgumentException | IllegalStateException e) { // alerts user
-                JOptionPane.showMessageDialog(null, e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+    private CompletableFuture<Boolean> deleteCategory(String name) {
+        return DatabaseWrite.submit(() -> {
+            if(Database.getCategory(name).isEmpty()) {
+                return false;
             }
-            return true;
-        }
-        return false;
+            Database.deleteCategory(name);
+            return !Database.categoryExists(name);
+        });
     }
 
     /**
@@ -128,13 +207,22 @@ public class CategoriesController implements ControllerInterface, ActionListener
             listener.actionPerformed(new ActionEvent(this, ActionEvent.ACTION_PERFORMED, "switch_to_tasks"));
         }
         else if(e.getActionCommand().equals("submit_category")) {
-            addCategory();
+            addCategory().thenAccept(added -> {
+                if(added) {
+                    performSearch(searchBar.getQuery());
+                }
+            });
         }
         else if(e.getActionCommand().equals("search")) {
             performSearch(searchBar.getQuery());
         }
         else {
-            boolean result = deleteCategory(e.getActionCommand());
+            String name = e.getActionCommand();
+            deleteCategory(name).thenAccept(deleted -> {
+                if(deleted) {
+                    categoriesPanel.removeCategory(name);
+                }
+            });
         }
     }
 }
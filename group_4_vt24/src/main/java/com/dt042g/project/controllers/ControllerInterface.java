@@ -16,4 +16,24 @@ public interface ControllerInterface {
      * @param window AppWindow instance that the controller will use.
      */
     void doWork(AppWindow window);
+
+    /**
+     * Function used to show a controller again after another one was
+     * shown, with the components it added to the window kept. By default
+     * the controller is run again, controllers that can update their
+     * components should only refresh what changed while they were hidden.
+     *
+     * @param window AppWindow instance that the controller will use.
+     */
+    default void resume(AppWindow window) {
+        doWork(window);
+    }
+
+    /**
+     * Function used to stop a controller once its components have been
+     * removed from the window, cancelling any work still running for them
+     * so that nothing updates or signals from components no longer shown.
+     * By default there is nothing to stop.
+     */
+    default void dispose() {}
 }
@@ -0,0 +1,70 @@
+package com.dt042g.project.controllers;
+
+import com.dt042g.project.AsyncDatabase;
+
+import javax.swing.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Utility class used by the controllers to write to the database
+ * without blocking the event dispatch thread, which would otherwise
+ * freeze the window for as long as another write holds the database.
+ * A write that is refused, such as a task in a category that does
+ * not exist, is shown to the user in an error dialog.
+ */
+final class DatabaseWrite {
+
+    /** Private constructor for the class. */
+    private DatabaseWrite() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Function used to run a write on the database threads.
+     *
+     * @param call the write to run, e.g. {@code () -> Database.addTask(values)}
+     * @return a future completed on the event dispatch thread with
+     * true if the write succeeded, or false if it was refused.
+     */
+    static CompletableFuture<Boolean> run(Runnable call) {
+        return AsyncDatabase.run(call).handleAsync((result, error) -> succeeded(error), SwingUtilities::invokeLater);
+    }
+
+    /**
+     * Function used to run a write on the database threads that
+     * decides itself whether it succeeded, such as a delete of
+     * something that might not exist.
+     *
+     * @param call the write to run
+     * @return a future completed on the event dispatch thread with
+     * the result of the write, or false if it was refused.
+     */
+    static CompletableFuture<Boolean> submit(Supplier<Boolean> call) {
+        return AsyncDatabase.submit(call)
+                .handleAsync((result, error) -> succeeded(error) && result, SwingUtilities::invokeLater);
+    }
+
+    /**
+     * Private function used to alert the user if a write failed.
+     *
+     * @param error the exception the write failed with, or null
+     * if it succeeded.
+     * @return boolean representing whether the write succeeded.
+     */
+    private static boolean succeeded(Throwable error) {
+        if(error == null) {
+            return true;
+        }
+
+        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+        if(cause instanceof IllegalArgumentException || cause instanceof IllegalStateException) { // alerts user
+            JOptionPane.showMessageDialog(null, cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+        else {
+            cause.printStackTrace();
+        }
+        return false;
+    }
+}
@@ -1,29 +1,50 @@
 package com.dt042g.project.controllers;
 
+import com.dt042g.project.AsyncDatabase;
 import com.dt042g.project.Database;
 import com.dt042g.project.views.AppWindow;
+import com.dt042g.project.views.TaskSelectedEvent;
 
+import javax.swing.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.List;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 
 /**
- * Class used to manage and initialize the specific controllers
+ * Class used to manage and initialize the specific controllers.
+ * The list of tasks and the list of categories are kept, each on
+ * its own screen of the window, once they have been shown, so
+ * switching between them only refreshes what changed meanwhile.
+ * A task is shown on a screen of its own that is removed once
+ * another screen is shown, and when the program is running low
+ * on memory every hidden screen is removed, to be built again
+ * the next time it is shown.
  *
  * @author Josef alirani
  */
 public class MainController implements ActionListener {
 
+    private static final String tasksScreen = "tasks";
+    private static final String categoriesScreen = "categories";
+    private static final String taskScreen = "task";
+    private static final Set<String> keptScreens = Set.of(tasksScreen, categoriesScreen);
+    private static final double memoryLimit = 0.75;
+
     private final AppWindow window;
+    private final Map<String, ControllerInterface> controllers = new HashMap<>();
 
     /**
      * Constructor for class, initiates the AppWindow,
-     * and finally, calls runController to start the program.
+     * and finally, shows the list of tasks to start the program.
      */
     public MainController() {
         window = new AppWindow();
 
-        runController(new AllTasksController(this));
+        showScreen(tasksScreen, () -> new AllTasksController(this));
     }
 
     /**
@@ -36,10 +57,70 @@ public class MainController implements ActionListener {
         controller.doWork(window);
     }
 
+    /**
+     * Private function used to show the screen of a controller. A kept
+     * screen is resumed with its components as they were, otherwise the
+     * controller is created and run on a new screen. Screens that are
+     * not kept are removed once they are hidden.
+     *
+     * @param name the name of the screen.
+     * @param create function creating the controller of the screen.
+     */
+    private void showScreen(String name, Supplier<ControllerInterface> create) {
+        if(!keptScreens.contains(name)) {
+            removeScreen(name);
+        }
+
+        ControllerInterface controller = controllers.get(name);
+        if(controller != null && window.showScreen(name)) {
+            controller.resume(window);
+        }
+        else {
+            controller = create.get();
+            controllers.put(name, controller);
+            window.showScreen(name);
+            runController(controller);
+        }
+
+        boolean lowOnMemory = isLowOnMemory();
+        for(String screen: new ArrayList<>(controllers.keySet())) {
+            if(!screen.equals(name) && (!keptScreens.contains(screen) || lowOnMemory)) {
+                removeScreen(screen);
+            }
+        }
+    }
+
+    /**
+     * Private function used to remove a screen and dispose of its
+     * controller, so that nothing still running updates the screen.
+     *
+     * @param name the name of the screen.
+     */
+    private void removeScreen(String name) {
+        ControllerInterface controller = controllers.remove(name);
+        if(controller != null) {
+            controller.dispose();
+        }
+        window.removeScreen(name);
+    }
+
+    /**
+     * Private function used to check if the memory used by the program
+     * is close to the most it can use.
+     *
+     * @return a boolean representing if memory is running low or not
+     */
+    private static boolean isLowOnMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = runtime.totalMemory() - runtime.freeMemory();
+        return used > runtime.maxMemory() * memoryLimit;
+    }
+
     /**
      * Method for handling events created in child controllers.
-     * Used for swapping which controller to run, or closing the
-     * program.
+     * Used for swapping which controller to show, or closing the
+     * program. A task is loaded in the background before its
+     * controller is run.
      *
      * @param e the event to be processed
      * @todo add events to process.
@@ -47,17 +128,20 @@ public class MainController implements ActionListener {
     @Override
     public void actionPerformed(ActionEvent e) {
         if(e.getActionCommand().equals("back")) {
-            runController(new AllTasksController(this));
+            showScreen(tasksScreen, () -> new AllTasksController(this));
         }
         else if(e.getActionCommand().equals("switch_to_categories")) {
-            runController(new CategoriesController(this));
+            showScreen(categoriesScreen, () -> new CategoriesController(this));
         }
         else if(e.getActionCommand().equals("switch_to_tasks")) {
-            runController(new AllTasksController(this));
+            showScreen(tasksScreen, () -> new AllTasksController(this));
         }
-        else {
-            List<String> tasks = Database.getTask(e.getActionCommand());
-            runController(new TaskController(tasks, this));
+        else if(e instanceof TaskSelectedEvent selected) {
+            long taskId = selected.getTaskId();
+            AsyncDatabase.submit(() -> Database.findTask(taskId))
+                    .thenAcceptAsync(task -> showScreen(taskScreen,
+                                    () -> new TaskController(task.orElse(null), this)),
+                            SwingUtilities::invokeLater);
         }
     }
 }
@@ -1,6 +1,8 @@
 package com.dt042g.project.controllers;
 
+import com.dt042g.project.AsyncDatabase;
 import com.dt042g.project.Database;
+import com.dt042g.project.Task;
 import com.dt042g.project.views.AppWindow;
 import com.dt042g.project.views.ExportButton;
 import com.dt042g.project.views.TaskDisplay;
@@ -13,7 +15,7 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller class responsible for displaying information about a specific task.
@@ -21,17 +23,18 @@ import java.util.List;
  * @author josef alirani
  */
 public class TaskController implements ControllerInterface, ActionListener {
-    private final List<String> task;
+    private final Task task;
     private final ActionListener listener;
+    private CompletableFuture<Void> pendingDelete;
 
     /**
      * Constructor for TaskController class, sets information
      * about a task that will be displayed.
      *
-     * @param newTask List containing information surrounding a task.
+     * @param newTask the task to display, or null if it does not exist.
      * @param listener ActionListener that this class will send events to.
      */
-    public TaskController(List<String> newTask, ActionListener listener) {
+    public TaskController(Task newTask, ActionListener listener) {
         this.task = newTask;
         this.listener = listener;
     }
@@ -73,10 +76,10 @@ public class TaskController implements ControllerInterface, ActionListener {
             try {
                 BufferedWriter writer = new BufferedWriter(new FileWriter(output));
                 JSONObject jsonObject = new JSONObject();
-                jsonObject.put("name", task.get(0));
-                jsonObject.put("description", task.get(1));
-                jsonObject.put("category", task.get(2));
-                jsonObject.put("date", task.get(3));
+                jsonObject.put("name", task.name());
+                jsonObject.put("description", task.information());
+                jsonObject.put("category", task.category());
+                jsonObject.put("date", task.dueDate() == null ? "" : task.dueDate().toString());
 
                 writer.write(jsonObject.toJSONString());
                 writer.close();
@@ -87,6 +90,15 @@ public class TaskController implements ControllerInterface, ActionListener {
         }
     }
 
+    /**
+     * Private function used to signal the parent controller to go
+     * back to the list of tasks.
+     */
+    private void back() {
+        listener.actionPerformed(new ActionEvent(this,
+                ActionEvent.ACTION_PERFORMED, "back"));
+    }
+
     /**
      * Function used to process events from the TaskDisplay component.
      *
@@ -96,14 +108,19 @@ public class TaskController implements ControllerInterface, ActionListener {
     @Override
     public void actionPerformed(ActionEvent e) {
         if(e.getActionCommand().equals("return")) {
-            listener.actionPerformed(new ActionEvent(this,
-                    ActionEvent.ACTION_PERFORMED, "back"));
+            // going back once the delete has finished lets the list see that the task is gone
+            if(pendingDelete != null) {
+                pendingDelete.whenCompleteAsync((result, error) -> back(), SwingUtilities::invokeLater);
+            }
+            else {
+                back();
+            }
         }
-        else if (e.getActionCommand().equals("delete")) {
-            Database.deleteTask(task.get(0));
+        else if (e.getActionCommand().equals("delete") && task != null) {
+            pendingDelete = AsyncDatabase.run(() -> Database.deleteTask(task.id()));
         }
-        else if (e.getActionCommand().equals("export_task")) {
-            exportTask(task.get(0));
+        else if (e.getActionCommand().equals("export_task") && task != null) {
+            exportTask(task.name());
         }
     }
 }
@@ -0,0 +1,151 @@
+package com.dt042g.project.controllers;
+
+import com.dt042g.project.Database;
+import com.dt042g.project.TaskSummary;
+import com.dt042g.project.views.TasksPanel;
+
+import javax.swing.*;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * SwingWorker used to search for tasks in the background and show
+ * the results in a "TasksPanel" as they are found, instead of once
+ * the whole search has finished. The first screenful of best matches
+ * is shown as soon as the ranked search returns, before the other
+ * searches run, and the rest follow in chunks, which Swing coalesces
+ * into as few updates of the list as it can keep up with. At most
+ * "searchLimit" tasks are shown:
+ * <ol>
+ *     <li>the tasks whose name, information or category best match
+ *     the words of the query,</li>
+ *     <li>the other tasks whose name or category contains the query,</li>
+ *     <li>if no task matched, the tasks matching the query allowing typos.</li>
+ * </ol>
+ */
+final class TaskSearch extends SwingWorker<Void, TaskSummary> {
+
+    private static final int firstChunk = 20;
+    private static final int chunkSize = 50;
+    private static final int searchLimit = 100;
+    private static final int fuzzyDistance = 2;
+
+    private final String query;
+    private final TasksPanel tasksPanel;
+    private final ActionListener listener;
+    private final Set<Long> found = new HashSet<>();
+    private final List<TaskSummary> chunk = new ArrayList<>();
+    private boolean shown;
+
+    /**
+     * Constructor for the TaskSearch class, the search starts once
+     * the worker is run.
+     *
+     * @param query the search query.
+     * @param tasksPanel the panel to show the tasks in.
+     * @param listener the ActionListener that will be signaled to when
+     * a task in the panel is pressed.
+     */
+    TaskSearch(String query, TasksPanel tasksPanel, ActionListener listener) {
+        this.query = query;
+        this.tasksPanel = tasksPanel;
+        this.listener = listener;
+    }
+
+    /**
+     * Function used to search for the tasks on a background thread,
+     * publishing them in chunks as they are found.
+     *
+     * @return nothing.
+     */
+    @Override
+    protected Void doInBackground() {
+        add(Database.getRankedTasks(query, searchLimit));
+        add(Database.getSearchedTasks(query));
+        if(found.isEmpty()) {
+            add(Database.getFuzzyTasks(query, fuzzyDistance));
+        }
+        flush();
+        return null;
+    }
+
+    /**
+     * Function used to show the tasks published so far, on the event
+     * dispatch thread. The first tasks replace the list, later ones are
+     * added to the end of it.
+     *
+     * @param tasks the tasks published since the last update.
+     */
+    @Override
+    protected void process(List<TaskSummary> tasks) {
+        if(isCancelled()) {
+            return;
+        }
+        if(shown) {
+            tasksPanel.appendTasks(tasks, false);
+        }
+        else {
+            tasksPanel.addTasks(tasks, listener);
+            shown = true;
+        }
+    }
+
+    /**
+     * Function used to finish the search on the event dispatch thread,
+     * emptying the list if nothing was found and hiding the loading
+     * indicator. A search that failed is reported, and the tasks found
+     * before it failed are kept.
+     */
+    @Override
+    protected void done() {
+        if(isCancelled()) {
+            return;
+        }
+        try {
+            get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            e.getCause().printStackTrace();
+        }
+        if(!shown) {
+            tasksPanel.addTasks(List.of(), listener);
+        }
+        tasksPanel.setLoading(false);
+    }
+
+    /**
+     * Private function used to collect tasks that have not been found
+     * yet, publishing them whenever a chunk is full, and as soon as
+     * the first screenful has been found.
+     *
+     * @param tasks the tasks found by one of the searches.
+     */
+    private void add(Iterable<TaskSummary> tasks) {
+        for(TaskSummary task: tasks) {
+            if(found.size() >= searchLimit || isCancelled()) {
+                return;
+            }
+            if(found.add(task.id())) {
+                chunk.add(task);
+                if(chunk.size() == chunkSize || found.size() == firstChunk) {
+                    flush();
+                }
+            }
+        }
+    }
+
+    /**
+     * Private function used to publish the collected tasks.
+     */
+    private void flush() {
+        if(!chunk.isEmpty()) {
+            publish(chunk.toArray(new TaskSummary[0]));
+            chunk.clear();
+        }
+    }
+}
@@ -2,16 +2,26 @@ package com.dt042g.project.views;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * View class extending the JFrame class, represents
  * the window which the content of the program will be
- * shown in.
+ * shown in. The window holds a number of named screens,
+ * of which one is shown at a time, so that a screen can
+ * be kept with its components while another one is shown
+ * and be switched back to without building it again.
  *
  * @author josef alirani
  */
 public class AppWindow extends JFrame {
 
+    private final CardLayout cards = new CardLayout();
+    private final JPanel screens = new JPanel(cards);
+    private final Map<String, JPanel> screensByName = new HashMap<>();
+    private JPanel currentScreen;
+
     /**
      * Constructor for the AppWindow class, responsible
      * for setting the JFrame's bounds, title and settings.
@@ -19,27 +29,85 @@ public class AppWindow extends JFrame {
     public AppWindow() {
         super("TO-DO list app");
         this.setSize(400,810);
-        this.getContentPane().setBackground(Color.BLACK);
+        screens.setBackground(Color.BLACK);
+        this.setContentPane(screens);
 
         this.setResizable(false);
         this.setDefaultCloseOperation(EXIT_ON_CLOSE);
-        this.setLayout(null);
 
         this.setVisible(true);
         Toolkit.getDefaultToolkit().sync();
     }
 
     /**
-     * Function used to add a JPanel component to the window, if
-     * successful, it repaints the window.
+     * Function used to show a screen of the window, creating it
+     * if it does not exist yet. Components added with addPanel
+     * are added to the screen being shown.
+     *
+     * @param name the name of the screen.
+     * @return returns true if the screen already existed, false
+     * if it was created empty.
+     */
+    public boolean showScreen(String name) {
+        JPanel screen = screensByName.get(name);
+        boolean existed = screen != null;
+
+        if(!existed) {
+            screen = new JPanel(null);
+            screen.setBackground(Color.BLACK);
+            screens.add(screen, name);
+            screensByName.put(name, screen);
+        }
+        currentScreen = screen;
+        cards.show(screens, name);
+        return existed;
+    }
+
+    /**
+     * Function used to remove a screen and all of its components
+     * from the window. The screen being shown cannot be removed.
+     *
+     * @param name the name of the screen.
+     * @return returns true if the screen was removed, false if
+     * it does not exist or is being shown.
+     */
+    public boolean removeScreen(String name) {
+        JPanel screen = screensByName.get(name);
+        if(screen == null || screen == currentScreen) {
+            return false;
+        }
+
+        screensByName.remove(name);
+        screens.remove(screen);
+        screen.removeAll();
+        return true;
+    }
+
+    /**
+     * Function used to check if a screen exists.
+     *
+     * @param name the name of the screen.
+     * @return a boolean representing if the screen exists or not
+     */
+    public boolean hasScreen(String name) {
+        return screensByName.containsKey(name);
+    }
+
+    /**
+     * Function used to add a JPanel component to the screen being
+     * shown, if successful, it repaints the window.
      *
      * @test check if panel is correctly added or not.
      * @param panel The JPanel component to add.
-     * @return returns true if successful, false if not.
+     * @return returns true if successful, false if not, e.g. if
+     * no screen has been shown yet.
      */
     public boolean addPanel(JComponent panel) {
+        if(currentScreen == null) {
+            return false;
+        }
         try {
-            this.add(panel);
+            currentScreen.add(panel);
             this.setVisible(true);
             this.repaint();
             return true;
@@ -51,17 +119,16 @@ public class AppWindow extends JFrame {
     }
 
     /**
-     * Function used to remove all components from the window,
-     * and set its layout to Null before repainting the window.
+     * Function used to remove all components from the screen
+     * being shown, before repainting the window.
      *
      * @test check if components are correctly removed or not.
      * @return returns true if successful, false if there were no
      * components to remove.
      */
     public boolean clearWindow() {
-        if(this.getComponentCount() > 0) {
-            this.getContentPane().removeAll();
-            this.setLayout(null);
+        if(currentScreen != null && currentScreen.getComponentCount() > 0) {
+            currentScreen.removeAll();
             this.repaint();
 
             return true;
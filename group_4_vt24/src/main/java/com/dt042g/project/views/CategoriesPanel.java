@@ -1,22 +1,31 @@
 package com.dt042g.project.views;
 
+import com.dt042g.project.Category;
+
 import javax.swing.*;
+import javax.swing.table.TableCellEditor;
+import javax.swing.table.TableCellRenderer;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Custom Swing component class used to display categories
- * in a scrollable list.
+ * in a scrollable table. The table only draws the rows in
+ * view, and every row is drawn by the same renderers,
+ * including its delete button, so the panel stays fast
+ * with thousands of categories.
  *
  * @author josef alirani
  */
 public class CategoriesPanel extends JScrollPane {
-    private final JPanel panel;
+    private final CategoryTableModel categories;
+    private final JTable table;
+    private ActionListener listener;
 
     /**
      * Constructor for CategoriesPanel class, initializes
@@ -25,83 +34,147 @@ public class CategoriesPanel extends JScrollPane {
     public CategoriesPanel() {
         this.setBounds(0, 60, 390, 400);
 
-        panel = new JPanel();
-        panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
+        categories = new CategoryTableModel();
+        table = new JTable(categories);
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        table.getTableHeader().setReorderingAllowed(false);
+
+        JButton deleteButton = new JButton("delete");
+        table.setRowHeight(Math.max(table.getRowHeight(), deleteButton.getPreferredSize().height));
+        table.getColumnModel().getColumn(0).setPreferredWidth(40);
+        table.getColumnModel().getColumn(1).setPreferredWidth(120);
+        table.getColumnModel().getColumn(2).setPreferredWidth(150);
+        table.getColumnModel().getColumn(CategoryTableModel.DELETE_COLUMN).setPreferredWidth(80);
+        table.getColumnModel().getColumn(CategoryTableModel.DELETE_COLUMN).setCellRenderer(new DeleteRenderer());
+        table.getColumnModel().getColumn(CategoryTableModel.DELETE_COLUMN).setCellEditor(new DeleteEditor());
+
         this.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS);
         this.setPreferredSize(new Dimension(400, 200));
-        this.setViewportView(panel);
+        this.setViewportView(table);
         this.setVisible(true);
     }
 
     /**
-     * Adds a JPanel containing the name, description and a delete-button
-     * for each category in the hashmap of values to the JPanel
-     * 'panel'.
+     * Function used to show the categories in the hashmap of values,
+     * in the order the map iterates them. Only the rows that differ
+     * from the categories already shown are changed.
      *
      * @param values hashmap of categories to add.
-     * @param listener the ActionListener which will handle the
-     * 'delete' event from the delete-buttons.
+     * @param listener the ActionListener which will be signaled to
+     * with the name of a category when its delete-button is pressed.
      */
     public void addCategories(HashMap<String, String> values, ActionListener listener) {
-        clearCategoriesPanel();
+        this.listener = listener;
 
-        int i = 1;
+        List<Category> newCategories = new ArrayList<>();
         for(Map.Entry<String, String> category: values.entrySet()) {
-            JPanel listPanel = new JPanel();
-            JLabel label = new JLabel(i+": ["+ category.getKey()+"]");
-            JLabel description = new JLabel(category.getValue());
-            JButton button = new JButton("delete");
-            button.addActionListener(e -> listener.actionPerformed(new ActionEvent(this,
-                    ActionEvent.ACTION_PERFORMED, category.getKey())));
-            listPanel.add(label);
-            listPanel.add(description);
-            listPanel.add(button);
-            panel.add(listPanel);
-            i++;
+            newCategories.add(new Category(category.getKey(), category.getValue()));
         }
-        this.setViewportView(panel);
-        this.setVisible(true);
+        stopEditing();
+        categories.update(newCategories);
+    }
+
+    /**
+     * Function used to remove a single category from the table,
+     * such as after it has been deleted.
+     *
+     * @param name the name of the category to remove.
+     */
+    public void removeCategory(String name) {
+        stopEditing();
+        categories.remove(name);
     }
 
     /**
      * Function used to find a category with a specific name
-     * in the JPanel 'panel'.
+     * in the table.
      *
      * @param name the name of the category to search for.
      * @return boolean representing whether the category was
      * found or not.
      */
     public boolean containsCategory(String name) {
-        Component[] components = panel.getComponents();
-        for (Component component : components) {
-            if (component instanceof JPanel jPanel) {
-                Component[] subComponents = jPanel.getComponents();
-                for(Component subComponent: subComponents) {
-                    if (subComponent instanceof JLabel label) {
-                        if (label.getText().contains(name)) {
-                            return true;
-                        }
-                        else {
-                            break;
-                        }
-                    }
-                }
-            }
-        }
-        return false;
+        return categories.indexOf(name) >= 0;
     }
 
     /**
-     * Function used to remove all components from the
-     * class variable 'panel' which is used to display
-     * categories.
+     * Function used to remove all categories from the table.
      */
     public void clearCategoriesPanel() {
-        panel.removeAll();
-        panel.revalidate();
+        stopEditing();
+        categories.update(List.of());
+    }
 
-        this.setViewportView(panel);
+    /**
+     * Private function used to stop pressing a delete button before
+     * the rows change underneath it.
+     */
+    private void stopEditing() {
+        if(table.isEditing()) {
+            table.getCellEditor().cancelCellEditing();
+        }
+    }
 
-        panel.setVisible(true);
+    /**
+     * Renderer drawing the delete button of every row.
+     */
+    private static final class DeleteRenderer implements TableCellRenderer {
+        private final JButton button = new JButton("delete");
+
+        /**
+         * Function used to get the button drawn in a row.
+         *
+         * @return the delete button.
+         */
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                       boolean hasFocus, int row, int column) {
+            return button;
+        }
+    }
+
+    /**
+     * Editor making the delete button of a row pressable. Pressing
+     * it signals the name of the category of the row to the listener.
+     */
+    private final class DeleteEditor extends AbstractCellEditor implements TableCellEditor {
+        private final JButton button = new JButton("delete");
+        private String name;
+
+        /**
+         * Constructor for the DeleteEditor class.
+         */
+        private DeleteEditor() {
+            button.addActionListener(e -> {
+                String pressed = name;
+                fireEditingStopped();
+                if(listener != null) {
+                    listener.actionPerformed(new ActionEvent(CategoriesPanel.this,
+                            ActionEvent.ACTION_PERFORMED, pressed));
+                }
+            });
+        }
+
+        /**
+         * Function used to get the button pressed in a row.
+         *
+         * @return the delete button.
+         */
+        @Override
+        public Component getTableCellEditorComponent(JTable table, Object value, boolean isSelected,
+                                                     int row, int column) {
+            name = (String) value;
+            return button;
+        }
+
+        /**
+         * Function used to get the value of the pressed cell.
+         *
+         * @return the name of the category.
+         */
+        @Override
+        public Object getCellEditorValue() {
+            return name;
+        }
     }
 }
@@ -0,0 +1,169 @@
+package com.dt042g.project.views;
+
+import com.dt042g.project.Category;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TableModel holding the categories shown in a CategoriesPanel, one
+ * row per category with its number, name, description and a delete
+ * button. The rows keep the order they are given in, and an index
+ * from category name to row answers lookups by name without walking
+ * the rows. Replacing the categories only removes, inserts and changes
+ * the rows that differ, see {@link RowDiff}.
+ */
+public final class CategoryTableModel extends AbstractTableModel {
+
+    /** The index of the column holding the delete buttons. */
+    static final int DELETE_COLUMN = 3;
+
+    private static final String[] COLUMNS = {"#", "name", "description", ""};
+
+    private final List<Category> categories = new ArrayList<>();
+    private final Map<String, Integer> rowByName = new HashMap<>();
+
+    /**
+     * Function used to get the number of categories in the model.
+     *
+     * @return the number of rows.
+     */
+    @Override
+    public int getRowCount() {
+        return categories.size();
+    }
+
+    /**
+     * Function used to get the number of columns of the table.
+     *
+     * @return the number of columns.
+     */
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    /**
+     * Function used to get the title of a column.
+     *
+     * @param column the index of the column.
+     * @return the title of the column.
+     */
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    /**
+     * Function used to get the value shown in a cell. The delete
+     * column holds the name of the category to delete.
+     *
+     * @param row the index of the row.
+     * @param column the index of the column.
+     * @return the value of the cell.
+     */
+    @Override
+    public Object getValueAt(int row, int column) {
+        Category category = categories.get(row);
+        return switch(column) {
+            case 0 -> row + 1;
+            case 2 -> category.description();
+            default -> category.name();
+        };
+    }
+
+    /**
+     * Function used to check whether a cell can be edited, which only
+     * the delete buttons can, so that they can be pressed.
+     *
+     * @param row the index of the row.
+     * @param column the index of the column.
+     * @return true for the delete column, false otherwise.
+     */
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return column == DELETE_COLUMN;
+    }
+
+    /**
+     * Function used to get the category in a row.
+     *
+     * @param row the index of the row.
+     * @return the category in the row.
+     */
+    public Category getCategory(int row) {
+        return categories.get(row);
+    }
+
+    /**
+     * Function used to get the row of a category.
+     *
+     * @param name the name of the category.
+     * @return the index of the row, or -1 if the category is not shown.
+     */
+    public int indexOf(String name) {
+        return rowByName.getOrDefault(name, -1);
+    }
+
+    /**
+     * Function used to replace the categories in the model with a new
+     * list, with as few changes to the rows as possible.
+     *
+     * @param newCategories the categories to show instead, in order.
+     */
+    public void update(Collection<Category> newCategories) {
+        RowDiff.apply(categories, new ArrayList<>(newCategories), Category::name, new RowDiff.Changes() {
+            @Override
+            public void removed(int first, int last) {
+                fireTableRowsDeleted(first, last);
+            }
+
+            @Override
+            public void inserted(int first, int last) {
+                fireTableRowsInserted(first, last);
+            }
+
+            @Override
+            public void changed(int index) {
+                fireTableRowsUpdated(index, index);
+            }
+        });
+        reindex(0);
+    }
+
+    /**
+     * Function used to remove a category from the model.
+     *
+     * @param name the name of the category.
+     * @return true if the category was shown, false otherwise.
+     */
+    public boolean remove(String name) {
+        Integer row = rowByName.remove(name);
+        if(row == null) {
+            return false;
+        }
+        categories.remove((int) row);
+        reindex(row);
+        fireTableRowsDeleted(row, row);
+        return true;
+    }
+
+    /**
+     * Private function used to update the name index for every row
+     * from a given row onwards, after rows have moved.
+     *
+     * @param from the index of the first row that may have moved.
+     */
+    private void reindex(int from) {
+        if(from == 0) {
+            rowByName.clear();
+        }
+        for(int row = from; row < categories.size(); row++) {
+            rowByName.put(categories.get(row).name(), row);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.dt042g.project.views;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Class used by the list and table models of the views to replace their
+ * rows with a new list with as few changes as possible. Rows are matched
+ * by a key, the longest run of rows that keeps its order stays in place,
+ * every other row that is no longer in the list, or has moved, is removed,
+ * and the remaining new rows are inserted around the ones that stayed.
+ * Neighbouring rows are removed and inserted as one change, so that a
+ * list narrowed down by one keystroke, or refreshed after adding a row,
+ * only redraws the rows it affects.
+ */
+final class RowDiff {
+
+    /**
+     * Interface for the model receiving the changes made to its rows,
+     * so that it can notify its view.
+     */
+    interface Changes {
+        /**
+         * Function called after a run of rows has been removed.
+         *
+         * @param first the index of the first removed row.
+         * @param last the index of the last removed row.
+         */
+        void removed(int first, int last);
+
+        /**
+         * Function called after a run of rows has been inserted.
+         *
+         * @param first the index of the first inserted row.
+         * @param last the index of the last inserted row.
+         */
+        void inserted(int first, int last);
+
+        /**
+         * Function called after a row has been replaced by a row
+         * with the same key but other contents.
+         *
+         * @param index the index of the row.
+         */
+        void changed(int index);
+    }
+
+    /** Private constructor for the class. */
+    private RowDiff() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Function used to change a list of rows into a new list of rows.
+     *
+     * @param rows the rows to change, which end up equal to the new rows.
+     * @param target the new rows, with no key appearing twice.
+     * @param key function giving the key of a row.
+     * @param changes the model to notify of each change, after it is made.
+     * @param <T> the type of the rows.
+     */
+    static <T> void apply(List<T> rows, List<T> target, Function<T, ?> key, Changes changes) {
+        Map<Object, Integer> targetIndex = new HashMap<>();
+        for(int i = 0; i < target.size(); i++) {
+            targetIndex.put(key.apply(target.get(i)), i);
+        }
+
+        int[] positions = new int[rows.size()];
+        for(int i = 0; i < rows.size(); i++) {
+            positions[i] = targetIndex.getOrDefault(key.apply(rows.get(i)), -1);
+        }
+        boolean[] keep = longestIncreasing(positions);
+
+        // remove from the end, so that the indexes of the rows before stay valid
+        Set<Object> kept = new HashSet<>();
+        int i = rows.size() - 1;
+        while(i >= 0) {
+            if(keep[i]) {
+                kept.add(key.apply(rows.get(i)));
+                i--;
+                continue;
+            }
+            int last = i;
+            while(i >= 0 && !keep[i]) {
+                i--;
+            }
+            rows.subList(i + 1, last + 1).clear();
+            changes.removed(i + 1, last);
+        }
+
+        // the rows left are in the new order, so insert the new rows around them
+        int j = 0;
+        while(j < target.size()) {
+            if(kept.contains(key.apply(target.get(j)))) {
+                if(!rows.get(j).equals(target.get(j))) {
+                    rows.set(j, target.get(j));
+                    changes.changed(j);
+                }
+                j++;
+                continue;
+            }
+            int first = j;
+            while(j < target.size() && !kept.contains(key.apply(target.get(j)))) {
+                j++;
+            }
+            rows.addAll(first, new ArrayList<>(target.subList(first, j)));
+            changes.inserted(first, j - 1);
+        }
+    }
+
+    /**
+     * Private function used to find the longest increasing run of
+     * positions, skipping the ones that are -1, in O(n log n) time.
+     *
+     * @param positions the new position of each row, or -1 if it is gone.
+     * @return for each row, whether it is part of the run.
+     */
+    private static boolean[] longestIncreasing(int[] positions) {
+        // ends[k] is the row ending the best run of length k + 1 found so far
+        int[] ends = new int[positions.length];
+        int[] previous = new int[positions.length];
+        int length = 0;
+
+        for(int i = 0; i < positions.length; i++) {
+            if(positions[i] < 0) {
+                continue;
+            }
+            int low = 0;
+            int high = length;
+            while(low < high) {
+                int middle = (low + high) >>> 1;
+                if(positions[ends[middle]] < positions[i]) {
+                    low = middle + 1;
+                }
+                else {
+                    high = middle;
+                }
+            }
+            previous[i] = low > 0 ? ends[low - 1] : -1;
+            ends[low] = i;
+            if(low == length) {
+                length++;
+            }
+        }
+
+        boolean[] keep = new boolean[positions.length];
+        for(int i = length > 0 ? ends[length - 1] : -1; i >= 0; i = previous[i]) {
+            keep[i] = true;
+        }
+        return keep;
+    }
+}
@@ -1,24 +1,34 @@
 package com.dt042g.project.views;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 
 /**
- * Custom JPanel class used to search for tasks.
+ * Custom JPanel class used to search for tasks. The search is
+ * signaled while the user types, once they have paused typing
+ * for a moment, so that a burst of keystrokes only results in
+ * a single search.
  *
  * @author josef alirani
  */
 public class SearchBar extends JPanel {
 
+    private static final int typingDelay = 200;
+
     private final JTextField textField;
+    private final Timer typingTimer;
+    private String lastQuery = "";
 
     /**
      * Constructor for SearchBar class, initializes the
      * panel by adding a JTextField that the user can input to,
      * and a button that starts the search.
      *
-     * @param listener ActionListener that the search button signals to.
+     * @param listener ActionListener that the search button, the enter
+     * key and a pause in typing signals to.
      * @test check if clicking the search button signals to the listener.
      */
     public SearchBar(ActionListener listener) {
@@ -26,14 +36,57 @@ public class SearchBar extends JPanel {
 
         textField = new JTextField(24);
         JButton searchButton = new JButton("search");
-        searchButton.addActionListener(e -> listener.actionPerformed(new ActionEvent(this,
-                ActionEvent.ACTION_PERFORMED, "search")));
+        searchButton.addActionListener(e -> search(listener));
+        textField.addActionListener(e -> search(listener));
+
+        // restarted by every change to the text, so it only fires once typing pauses
+        typingTimer = new Timer(typingDelay, e -> {
+            if(!getQuery().equals(lastQuery)) {
+                search(listener);
+            }
+        });
+        typingTimer.setRepeats(false);
+        textField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                typingTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                typingTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {}
+        });
 
         this.add(textField);
         this.add(searchButton);
         this.setVisible(true);
     }
 
+    /**
+     * Private function used to signal a search for the current
+     * text to the listener.
+     *
+     * @param listener the ActionListener to signal to.
+     */
+    private void search(ActionListener listener) {
+        typingTimer.stop();
+        lastQuery = getQuery();
+        listener.actionPerformed(new ActionEvent(this,
+                ActionEvent.ACTION_PERFORMED, "search"));
+    }
+
+    /**
+     * Function used to cancel a search waiting for the user to pause
+     * typing, e.g. once the search bar is no longer shown.
+     */
+    public void cancelSearch() {
+        typingTimer.stop();
+    }
+
     /**
      * Function used to get the text that
      * a user wrote inside the text field.
@@ -1,10 +1,10 @@
 package com.dt042g.project.views;
 
+import com.dt042g.project.Task;
+
 import javax.swing.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.ArrayDeque;
-import java.util.List;
 
 /**
  * Custom JPanel used to display all the information about a task,
@@ -19,12 +19,12 @@ public class TaskDisplay extends JPanel {
      * Constructor for the TaskDisplay class, initializes the panel
      * with information about the task received from parameters.
      *
-     * @param task the task to display
+     * @param task the task to display, or null if it does not exist
      * @param listener an ActionListener that the buttons will
      * communicate with.
      * @test check if clicking the buttons signals to the listener.       
      */
-    public TaskDisplay(List<String> task, ActionListener listener) {
+    public TaskDisplay(Task task, ActionListener listener) {
         this.setBounds(0, 0, 400, 400);
         this.setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
 
@@ -45,16 +45,16 @@ public class TaskDisplay extends JPanel {
         });
         this.add(returnButton);
 
-        if(task.size() != 4) {
+        if(task == null) {
             titleText = new JLabel("this task does not exist!");
 
             this.add(titleText);
         }
         else {
-            titleText = new JLabel(task.get(0));
-            JLabel infoText = new JLabel(task.get(1));
-            JLabel dateText = new JLabel(task.get(2));
-            JLabel categoryText = new JLabel(task.get(3));
+            titleText = new JLabel(task.name());
+            JLabel infoText = new JLabel(task.information());
+            JLabel dateText = new JLabel(task.dueDate() == null ? "no due date" : task.dueDate().toString());
+            JLabel categoryText = new JLabel(task.category());
 
             this.add(titleText);
             this.add(infoText);
@@ -1,6 +1,8 @@
 package com.dt042g.project.views;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.text.ParseException;
@@ -12,6 +14,8 @@ import java.util.List;
 /**
  * Custom JPanel class that is used to display a form containing
  * fields that a user can input to, in order to create new tasks.
+ * Typing into the category field signals "category_changed", so
+ * that existing categories can be suggested below it.
  *
  * @author josef alirani
  */
@@ -20,6 +24,7 @@ public class TaskForm extends JPanel {
     private final JTextField info;
     private final JTextField date;
     private final JTextField category;
+    private final JPopupMenu suggestions;
 
     /**
      * Constructor for TaskForm class, initializes the
@@ -27,7 +32,7 @@ public class TaskForm extends JPanel {
      * as well as a button to submit the task.
      *
      * @param listener ActionListener that the submit button
-     * will signal to.
+     * and the category field will signal to.
      */
     public TaskForm(ActionListener listener) {
         this.setBounds(0, 460, 400, 320);
@@ -47,6 +52,23 @@ public class TaskForm extends JPanel {
                 "submit_task")));
         category = new JTextField(); // 12
         category.setSize(400, 20);
+        category.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                categoryChanged(listener);
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                categoryChanged(listener);
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {}
+        });
+        // not focusable, so that the user can keep typing while it is shown
+        suggestions = new JPopupMenu();
+        suggestions.setFocusable(false);
 
         JLabel titleLabel = new JLabel("name:");
         this.add(titleLabel);
@@ -107,6 +129,43 @@ public class TaskForm extends JPanel {
      */
     public String getCategory() {return category.getText();}
 
+    /**
+     * Function used to show a list of category names below the
+     * "categories" text field, replacing any names already shown.
+     * Clicking a name fills it into the text field. Nothing is shown
+     * if there are no names, or only the name already typed, or if the
+     * form is not on screen.
+     *
+     * @param names the category names to suggest.
+     */
+    public void showCategorySuggestions(List<String> names) {
+        suggestions.setVisible(false);
+        suggestions.removeAll();
+
+        if(names.isEmpty() || names.equals(List.of(category.getText()))) {
+            return;
+        }
+        for(String name: names) {
+            JMenuItem item = new JMenuItem(name);
+            item.addActionListener(e -> category.setText(name));
+            suggestions.add(item);
+        }
+        if(category.isShowing()) {
+            suggestions.show(category, 0, category.getHeight());
+        }
+    }
+
+    /**
+     * Private function used to signal to the listener that the
+     * text inside the "categories" text field has changed.
+     *
+     * @param listener the ActionListener to signal to.
+     */
+    private void categoryChanged(ActionListener listener) {
+        listener.actionPerformed(new ActionEvent(this,
+                ActionEvent.ACTION_PERFORMED, "category_changed"));
+    }
+
     /**
      * Function used to check if the form is filled out or not.
      *
@@ -0,0 +1,82 @@
+package com.dt042g.project.views;
+
+import com.dt042g.project.TaskSummary;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * ListModel holding the tasks shown in a TasksPanel. The model only
+ * holds the pages of tasks loaded so far, and adding a page only
+ * notifies the list of the new rows, so the list never has to look
+ * at the rows that were already shown.
+ *
+ * Replacing the tasks, such as with the results of a new search,
+ * only removes, inserts and changes the rows that differ, comparing
+ * the tasks by id.
+ */
+public final class TaskListModel extends AbstractListModel<TaskSummary> {
+
+    private final List<TaskSummary> tasks = new ArrayList<>();
+
+    /**
+     * Function used to get the number of tasks in the model.
+     *
+     * @return the number of tasks.
+     */
+    @Override
+    public int getSize() {
+        return tasks.size();
+    }
+
+    /**
+     * Function used to get the task shown in a row.
+     *
+     * @param index the index of the row.
+     * @return the task in the row.
+     */
+    @Override
+    public TaskSummary getElementAt(int index) {
+        return tasks.get(index);
+    }
+
+    /**
+     * Function used to replace the tasks in the model with a new list,
+     * with as few changes to the rows as possible, see {@link RowDiff}.
+     *
+     * @param newTasks the tasks to show instead.
+     */
+    public void update(Collection<TaskSummary> newTasks) {
+        RowDiff.apply(tasks, new ArrayList<>(newTasks), TaskSummary::id, new RowDiff.Changes() {
+            @Override
+            public void removed(int first, int last) {
+                fireIntervalRemoved(TaskListModel.this, first, last);
+            }
+
+            @Override
+            public void inserted(int first, int last) {
+                fireIntervalAdded(TaskListModel.this, first, last);
+            }
+
+            @Override
+            public void changed(int index) {
+                fireContentsChanged(TaskListModel.this, index, index);
+            }
+        });
+    }
+
+    /**
+     * Function used to add tasks after the ones already in the model.
+     *
+     * @param newTasks the tasks to add.
+     */
+    public void append(Collection<TaskSummary> newTasks) {
+        int first = tasks.size();
+        tasks.addAll(newTasks);
+        if(tasks.size() > first) {
+            fireIntervalAdded(this, first, tasks.size() - 1);
+        }
+    }
+}
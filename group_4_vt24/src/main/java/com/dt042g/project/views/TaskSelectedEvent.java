@@ -0,0 +1,33 @@
+package com.dt042g.project.views;
+
+import java.awt.event.ActionEvent;
+
+/**
+ * ActionEvent sent when a task in a list of tasks is pressed, carrying
+ * the id of the task so that it can be opened without looking it up
+ * by name. The action command of the event is always "open_task".
+ */
+public class TaskSelectedEvent extends ActionEvent {
+
+    private final long taskId;
+
+    /**
+     * Constructor for the TaskSelectedEvent class.
+     *
+     * @param source the component the task was selected in.
+     * @param taskId the id of the selected task.
+     */
+    public TaskSelectedEvent(Object source, long taskId) {
+        super(source, ActionEvent.ACTION_PERFORMED, "open_task");
+        this.taskId = taskId;
+    }
+
+    /**
+     * Getter function used to get the id of the selected task.
+     *
+     * @return the id of the task.
+     */
+    public long getTaskId() {
+        return taskId;
+    }
+}
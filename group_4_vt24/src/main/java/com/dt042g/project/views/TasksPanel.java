@@ -1,33 +1,79 @@
 package com.dt042g.project.views;
 
+import com.dt042g.project.TaskSummary;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.ArrayDeque;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Collection;
 
 /**
  * Custom JScrollPane class used to display all tasks in the
- * form of a list that is scrollable.
+ * form of a list that is scrollable. Tasks can be shown one page
+ * at a time, in which case the panel signals "load_more" to its
+ * listener when the user scrolls close to the end of the list.
+ * The list only draws the rows in view, all with the same
+ * renderer and a fixed row height, so showing and scrolling
+ * the list costs the same however many tasks it holds. A bar
+ * above the list shows while tasks are still being loaded.
  *
  * @author josef alirani
  */
 public class TasksPanel  extends JScrollPane {
 
-    private final JPanel panel;
+    private static final int loadMoreDistance = 100;
+
+    private final TaskListModel tasks;
+    private final JList<TaskSummary> list;
+    private final JProgressBar loading;
+    private ActionListener listener;
+    private boolean hasMore;
+    private boolean loadingMore;
 
     /**
      * Constructor for TasksPanel class, initializes the
-     * panel by setting its layout and adding a JPanel.
+     * panel by adding the list of tasks. Clicking a task,
+     * or pressing enter on it, opens it.
      */
     public TasksPanel() {
         this.setBounds(0, 60, 390, 400);
 
-        panel = new JPanel();
-        panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
+        tasks = new TaskListModel();
+        list = new JList<>(tasks);
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setCellRenderer(new TaskRenderer());
+        // a fixed row size lets the list place and draw rows without measuring every task
+        list.setPrototypeCellValue(new TaskSummary(0, "Prototype task"));
+        list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = list.locationToIndex(e.getPoint());
+                if(index >= 0 && list.getCellBounds(index, index).contains(e.getPoint())) {
+                    openTask(index);
+                }
+            }
+        });
+        list.getInputMap().put(KeyStroke.getKeyStroke(KeyEvent.VK_ENTER, 0), "open_task");
+        list.getActionMap().put("open_task", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                openTask(list.getSelectedIndex());
+            }
+        });
+
         this.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS);
         this.setPreferredSize(new Dimension(400, 200));
-        this.setViewportView(panel);
+        this.setViewportView(list);
+
+        loading = new JProgressBar();
+        loading.setIndeterminate(true);
+        loading.setVisible(false);
+        this.setColumnHeaderView(loading);
+        this.getVerticalScrollBar().addAdjustmentListener(e -> loadMoreIfNeeded());
         this.setVisible(true);
     }
 
@@ -35,37 +81,104 @@ public class TasksPanel  extends JScrollPane {
      * Function used to add tasks to the list displayed on
      * the panel.
      *
-     * @param tasks an arrayDeque containing the titles of tasks.
+     * @param tasks the ids and titles of the tasks.
      * @param listener the ActionListener that will be signaled to
-     * when a task is pressed.
+     * with a TaskSelectedEvent when a task is pressed.
      */
-    public void addTasks(ArrayDeque<String> tasks, ActionListener listener) {
+    public void addTasks(Collection<TaskSummary> tasks, ActionListener listener) {
+        addTasks(tasks, listener, false);
+    }
 
-        clearTasksPanel();
+    /**
+     * Function used to replace the list displayed on the panel
+     * with the first page of tasks. Only the rows that differ from
+     * the tasks already shown are changed.
+     *
+     * @param tasks the ids and titles of the tasks.
+     * @param listener the ActionListener that will be signaled to
+     * when a task is pressed, or when more tasks should be loaded.
+     * @param hasMore whether there are more tasks after these.
+     */
+    public void addTasks(Collection<TaskSummary> tasks, ActionListener listener, boolean hasMore) {
 
-        int i = 1;
-        for(String task: tasks) {
-            JButton label = new JButton(i+": "+ task);
-            label.addActionListener(e -> listener.actionPerformed(new ActionEvent(this,
-                    ActionEvent.ACTION_PERFORMED, task)));
-            panel.add(label);
-            i++;
-        }
-        this.setViewportView(panel);
-        this.setVisible(true);
+        this.listener = listener;
+        this.tasks.update(tasks);
+        updateHasMore(hasMore);
     }
 
     /**
-     * Private function used to reset the panel to an empty list.
-     * @test check if the function actually removes the components.
+     * Function used to add the next page of tasks to the end of the
+     * list, continuing its numbering.
+     *
+     * @param tasks the ids and titles of the tasks.
+     * @param hasMore whether there are more tasks after these, which
+     * are requested with "load_more" once the user scrolls to them.
      */
-    private void clearTasksPanel() {
-        panel.removeAll();
-        panel.revalidate();
+    public void appendTasks(Collection<TaskSummary> tasks, boolean hasMore) {
+        this.tasks.append(tasks);
+        updateHasMore(hasMore);
+    }
 
-        this.setViewportView(panel);
+    /**
+     * Function used to show or hide the loading indicator above the
+     * list, while tasks are being loaded into it.
+     *
+     * @param isLoading whether tasks are being loaded.
+     */
+    public void setLoading(boolean isLoading) {
+        loading.setVisible(isLoading);
+    }
 
-        panel.setVisible(true);
+    /**
+     * Function used to check if the loading indicator is shown.
+     *
+     * @return a boolean representing if tasks are being loaded or not
+     */
+    public boolean isLoading() {
+        return loading.isVisible();
+    }
+
+    /**
+     * Private function used to record whether more tasks can be
+     * loaded, once a page has been added to the list.
+     *
+     * @param hasMore whether there are more tasks after the ones shown.
+     */
+    private void updateHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+        loadingMore = false;
+
+        // a page too short to scroll through has to request the next one itself
+        SwingUtilities.invokeLater(this::loadMoreIfNeeded);
+    }
+
+    /**
+     * Private function used to signal a TaskSelectedEvent for the
+     * task in a row to the listener.
+     *
+     * @param index the index of the row, or -1 if no row is selected.
+     */
+    private void openTask(int index) {
+        if(index >= 0 && listener != null) {
+            listener.actionPerformed(new TaskSelectedEvent(this, tasks.getElementAt(index).id()));
+        }
+    }
+
+    /**
+     * Private function used to signal "load_more" to the listener when
+     * more tasks are available and the end of the list is in view.
+     * Only one page is requested at a time.
+     */
+    private void loadMoreIfNeeded() {
+        if(!hasMore || loadingMore || listener == null) {
+            return;
+        }
+
+        JScrollBar scrollBar = this.getVerticalScrollBar();
+        if(scrollBar.getValue() + scrollBar.getVisibleAmount() >= scrollBar.getMaximum() - loadMoreDistance) {
+            loadingMore = true;
+            listener.actionPerformed(new ActionEvent(this, ActionEvent.ACTION_PERFORMED, "load_more"));
+        }
     }
 
     /**
@@ -74,15 +187,41 @@ public class TasksPanel  extends JScrollPane {
      * @return a boolean representing if the task exists or not
      */
     public boolean containsTask(String task) {
-        Component[] components = panel.getComponents();
-        for (Component component : components) {
-            if (component instanceof JButton) {
-                JButton button = (JButton) component;
-                if (button.getText().contains(task)) {
-                    return true;
-                }
+        for(int i = 0; i < tasks.getSize(); i++) {
+            if(TaskRenderer.text(i, tasks.getElementAt(i)).contains(task)) {
+                return true;
             }
         }
         return false;
     }
+
+    /**
+     * Renderer shared by every row of the list, drawing a task as
+     * its number in the list followed by its name.
+     */
+    private static final class TaskRenderer extends DefaultListCellRenderer {
+
+        /**
+         * Function used to configure the renderer for a row.
+         *
+         * @return the renderer, showing the task.
+         */
+        @Override
+        public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                      boolean isSelected, boolean cellHasFocus) {
+            return super.getListCellRendererComponent(list, text(index, (TaskSummary) value), index,
+                    isSelected, cellHasFocus);
+        }
+
+        /**
+         * Function used to get the text shown for a task.
+         *
+         * @param index the index of the row of the task.
+         * @param task the task.
+         * @return the text of the row.
+         */
+        private static String text(int index, TaskSummary task) {
+            return (index + 1) + ": " + task.name();
+        }
+    }
 }
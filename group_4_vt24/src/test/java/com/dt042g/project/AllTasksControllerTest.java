@@ -19,6 +19,10 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -39,8 +43,8 @@ public class AllTasksControllerTest {
      */
     @Test
     public void testAddingTasks() {
-        ArrayDeque<String> mockTasks = new ArrayDeque<>();
-        mockTasks.add("work");
+        ArrayDeque<TaskSummary> mockTasks = new ArrayDeque<>();
+        mockTasks.add(new TaskSummary(1, "work"));
         TasksPanel tasksPanel = new TasksPanel();
 
         ActionListener mockListener = e -> {};
@@ -50,6 +54,47 @@ public class AllTasksControllerTest {
         assertTrue(tasksPanel.containsTask("work"));
     }
 
+    /**
+     * A test meant to test if a page of tasks is added after the tasks already
+     * shown. Expected result is that both pages are shown and numbered in order.
+     */
+    @Test
+    public void testAppendingTasks() {
+        TasksPanel tasksPanel = new TasksPanel();
+        tasksPanel.addTasks(List.of(new TaskSummary(1, "first")), e -> {}, true);
+        tasksPanel.appendTasks(List.of(new TaskSummary(2, "second")), false);
+
+        assertTrue(tasksPanel.containsTask("1: first"));
+        assertTrue(tasksPanel.containsTask("2: second"));
+    }
+
+    /**
+     * A test meant to check that a large list of tasks is shown by a single list
+     * component, and that selecting a row still opens its task. Expected result is
+     * one list holding every task, and a TaskSelectedEvent with the id of the row.
+     */
+    @Test
+    public void testOpeningTaskFromLargeList() throws Exception {
+        List<TaskSummary> tasks = new ArrayList<>();
+        for(int i = 0; i < 100_000; i++) {
+            tasks.add(new TaskSummary(1000 + i, "task " + i));
+        }
+        List<Long> opened = new ArrayList<>();
+        TasksPanel tasksPanel = new TasksPanel();
+        tasksPanel.addTasks(tasks, e -> opened.add(((TaskSelectedEvent) e).getTaskId()));
+
+        Field field = tasksPanel.getClass().getDeclaredField("list");
+        field.setAccessible(true);
+        JList<?> list = (JList<?>) field.get(tasksPanel);
+        assertEquals(100_000, list.getModel().getSize());
+        assertTrue(list.getComponentCount() <= 1, "Rows should be drawn by the renderer, not added as components");
+
+        list.setSelectedIndex(41);
+        list.getActionMap().get("open_task").actionPerformed(null);
+        assertEquals(List.of(1041L), opened);
+        assertTrue(tasksPanel.containsTask("42: task 41"));
+    }
+
     /**
      * Test used to check if AllTasksController correctly communicates to
      * the main controller when attempting to switch to TaskController.
@@ -63,6 +108,22 @@ public class AllTasksControllerTest {
         controller.actionPerformed(new ActionEvent(this, ActionEvent.ACTION_PERFORMED, "task"));
     }
 
+    /**
+     * Test used to check if AllTasksController passes the id of a selected task
+     * on to the main controller. The expected result is a TaskSelectedEvent
+     * with the same task id.
+     */
+    @Test
+    public void testSelectTaskById() {
+        ActionListener mockListener = e -> {
+            assertEquals("open_task", e.getActionCommand());
+            assertEquals(42, ((TaskSelectedEvent) e).getTaskId());
+        };
+
+        AllTasksController controller = new AllTasksController(mockListener);
+        controller.actionPerformed(new TaskSelectedEvent(this, 42));
+    }
+
     /**
      * Test used to see if the 'search' command is handled correctly. The expected
      * result is that 'fail()' is not called when communicating to the AllTasksController.
@@ -97,6 +158,155 @@ public class AllTasksControllerTest {
         });
     }
 
+    /**
+     * Test used to check that a search shows the loading indicator while its
+     * results are delivered to the list, and hides it once they all arrived.
+     * The expected result is that the indicator is shown when the search
+     * starts and hidden, with the first task shown, once it has finished.
+     */
+    @Test
+    public void testStreamingSearch() throws Exception {
+        AllTasksController controller = new AllTasksController(e -> {});
+        TasksPanel panel = new TasksPanel();
+        boolean[] loading = new boolean[1];
+
+        EventQueue.invokeAndWait(() -> {
+            try {
+                Field TasksField = controller.getClass().getDeclaredField("tasksPanel");
+                TasksField.setAccessible(true);
+                TasksField.set(controller, panel);
+
+                Method search = controller.getClass().getDeclaredMethod("performSearch", String.class);
+                search.setAccessible(true);
+                search.invoke(controller, "task");
+                loading[0] = panel.isLoading();
+            } catch (Exception e) {
+                fail(e);
+            }
+        });
+        assertTrue(loading[0]);
+
+        for(int i = 0; i < 100 && loading[0]; i++) {
+            Thread.sleep(50);
+            EventQueue.invokeAndWait(() -> loading[0] = panel.isLoading());
+        }
+        assertFalse(loading[0]);
+        assertTrue(panel.containsTask("1: "));
+    }
+
+    /**
+     * Test used to check that disposing of the controller stops the work still
+     * running for its components. The expected result is that the running search
+     * is cancelled and that text typed into the search bar no longer signals 'search'.
+     */
+    @Test
+    public void testDisposingController() throws Exception {
+        List<String> queries = new java.util.concurrent.CopyOnWriteArrayList<>();
+        AllTasksController controller = new AllTasksController(e -> {});
+        TasksPanel panel = new TasksPanel();
+        Future<?>[] search = new Future<?>[1];
+
+        EventQueue.invokeAndWait(() -> {
+            try {
+                SearchBar searchBar = new SearchBar(e -> queries.add(e.getActionCommand()));
+                Field searchField = controller.getClass().getDeclaredField("searchBar");
+                searchField.setAccessible(true);
+                searchField.set(controller, searchBar);
+                Field TasksField = controller.getClass().getDeclaredField("tasksPanel");
+                TasksField.setAccessible(true);
+                TasksField.set(controller, panel);
+
+                Method method = controller.getClass().getDeclaredMethod("performSearch", String.class);
+                method.setAccessible(true);
+                method.invoke(controller, "task");
+                Field pendingField = controller.getClass().getDeclaredField("pendingSearch");
+                pendingField.setAccessible(true);
+                search[0] = (Future<?>) pendingField.get(controller);
+
+                Field textField = searchBar.getClass().getDeclaredField("textField");
+                textField.setAccessible(true);
+                ((JTextField) textField.get(searchBar)).setText("wor");
+
+                controller.dispose();
+            } catch (Exception e) {
+                fail(e);
+            }
+        });
+
+        Thread.sleep(500);
+        EventQueue.invokeAndWait(() -> {});
+
+        assertTrue(search[0].isCancelled() || search[0].isDone(), "The running search should be stopped");
+        assertEquals(List.of(), queries, "A disposed search bar should not signal 'search'");
+    }
+
+    /**
+     * Test used to check that typing into the search bar results in a single
+     * search once typing pauses. The expected result is that three keystrokes
+     * signal 'search' once, with the full query.
+     */
+    @Test
+    public void testTypeAheadSearch() throws Exception {
+        List<String> queries = new java.util.concurrent.CopyOnWriteArrayList<>();
+        SearchBar[] searchBar = new SearchBar[1];
+
+        EventQueue.invokeAndWait(() -> {
+            searchBar[0] = new SearchBar(e -> queries.add(searchBar[0].getQuery()));
+            try {
+                Field field = searchBar[0].getClass().getDeclaredField("textField");
+                field.setAccessible(true);
+                JTextField textField = (JTextField) field.get(searchBar[0]);
+                for(String key: List.of("w", "o", "r")) {
+                    textField.getDocument().insertString(textField.getDocument().getLength(), key, null);
+                }
+            } catch (Exception e) {
+                fail(e);
+            }
+        });
+
+        Thread.sleep(1000);
+        EventQueue.invokeAndWait(() -> {});
+
+        assertEquals(List.of("wor"), queries);
+    }
+
+    /**
+     * Test used to check that typing into the category field of the task form
+     * signals that the category changed, so that categories can be suggested.
+     * The expected result is one 'category_changed' per keystroke.
+     */
+    @Test
+    public void testCategoryChanged() throws Exception {
+        List<String> commands = new ArrayList<>();
+        TaskForm form = new TaskForm(e -> commands.add(e.getActionCommand()));
+
+        Field field = form.getClass().getDeclaredField("category");
+        field.setAccessible(true);
+        JTextField textField = (JTextField) field.get(form);
+        textField.getDocument().insertString(0, "w", null);
+        textField.getDocument().insertString(1, "o", null);
+
+        assertEquals(List.of("category_changed", "category_changed"), commands);
+        assertEquals("wo", form.getCategory());
+
+        Field popupField = form.getClass().getDeclaredField("suggestions");
+        popupField.setAccessible(true);
+        JPopupMenu suggestions = (JPopupMenu) popupField.get(form);
+
+        form.showCategorySuggestions(List.of("Work", "World"));
+        assertEquals(2, suggestions.getComponentCount());
+        assertEquals("Work", ((JMenuItem) suggestions.getComponent(0)).getText());
+        assertEquals("World", ((JMenuItem) suggestions.getComponent(1)).getText());
+        assertFalse(suggestions.isVisible(), "Suggestions should only be shown while the form is on screen");
+
+        ((JMenuItem) suggestions.getComponent(1)).doClick(0);
+        assertEquals("World", form.getCategory());
+
+        form.showCategorySuggestions(List.of("World"));
+        assertEquals(0, suggestions.getComponentCount(), "Only the name already typed should not be suggested");
+        assertFalse(suggestions.isVisible());
+    }
+
     /**
      * Test to determine whether the program operates as intended when
      * attempting to submit an empty form as a task. The expected
@@ -123,6 +333,9 @@ public class AllTasksControllerTest {
         try {
             Field[] fields = form.getClass().getDeclaredFields();
             for(Field field: fields) {
+                if(field.getType() != JTextField.class) {
+                    continue;
+                }
                 JTextField textField;
                 if(field.getName().equals("date")) {
                     textField = new JTextField("2000-01-14");
@@ -156,6 +369,9 @@ public class AllTasksControllerTest {
         try {
             Field[] fields = form.getClass().getDeclaredFields();
             for(Field field: fields) {
+                if(field.getType() != JTextField.class) {
+                    continue;
+                }
                 field.setAccessible(true);
                 JTextField textField = new JTextField("task");
                 field.set(form, textField);
@@ -168,7 +384,7 @@ public class AllTasksControllerTest {
             Method method = controller.getClass().getDeclaredMethod("addTask");
             method.setAccessible(true);
 
-            assertFalse((boolean) method.invoke(controller));
+            assertFalse((Boolean) ((CompletableFuture<?>) method.invoke(controller)).join());
         } catch (IllegalAccessException e) {
             System.out.println("cannot access field: "+e.getMessage());
             assert false;
@@ -234,15 +450,17 @@ public class AllTasksControllerTest {
     }
 
     /**
-     * Parameterized test to check whether invalid task names can be submitted
-     * in forms. The expected result is that no form is accepted.
+     * Parameterized test to check whether tasks named like the commands sent
+     * between the program's components can be submitted in forms. Tasks are
+     * opened by their id, so their names cannot be mistaken for commands.
+     * The expected result is that every form is accepted.
      *
-     * @param name the invalid task name used in the test.
+     * @param name the task name used in the test.
      */
     @ParameterizedTest
     @CsvSource({"return", "back", "search", "submit_task", "submit_category", "delete", "import_task",
             "export_task", "switch", "switch_to_tasks", "switch_to_categories"})
-    public void testInvalidTaskNames(String name) {
+    public void testCommandTaskNames(String name) {
         ActionListener mockListener = e -> {};
 
         TaskForm form = new TaskForm(mockListener);
@@ -250,6 +468,9 @@ public class AllTasksControllerTest {
         try {
             Field[] fields = form.getClass().getDeclaredFields();
             for(Field field: fields) {
+                if(field.getType() != JTextField.class) {
+                    continue;
+                }
                 JTextField textField;
                 if(field.getName().equals("name")) {
                     textField = new JTextField(name);
@@ -257,6 +478,9 @@ public class AllTasksControllerTest {
                 else if(field.getName().equals("date")) {
                     textField = new JTextField("2000-01-01");
                 }
+                else if(field.getName().equals("category")) {
+                    textField = new JTextField("Work");
+                }
                 else {
                     textField = new JTextField("task");
                 }
@@ -272,7 +496,8 @@ public class AllTasksControllerTest {
             Method method = controller.getClass().getDeclaredMethod("addTask");
             method.setAccessible(true);
 
-            assertFalse((boolean)method.invoke(controller));
+            assertTrue((Boolean) ((CompletableFuture<?>) method.invoke(controller)).join());
+            Database.deleteTask(name);
         } catch (IllegalAccessException e) {
             System.out.println("cannot access field: "+e.getMessage());
             assert false;
@@ -314,7 +539,7 @@ public class AllTasksControllerTest {
             writer.write(jsonObject.toJSONString());
             writer.close();
 
-            method.invoke(controller, input);
+            ((CompletableFuture<?>) method.invoke(controller, input)).join();
 
             boolean res = !(Database.getTask("task1test").isEmpty());
 
@@ -368,7 +593,7 @@ public class AllTasksControllerTest {
             writer.write(jsonObject.toJSONString());
             writer.close();
 
-            method.invoke(controller, input);
+            ((CompletableFuture<?>) method.invoke(controller, input)).join();
 
             boolean res = (Database.getTask("return").isEmpty());
             if(!res) {
@@ -415,7 +640,7 @@ public class AllTasksControllerTest {
             writer.write(jsonObject.toJSONString());
             writer.close();
 
-            method.invoke(controller, input);
+            ((CompletableFuture<?>) method.invoke(controller, input)).join();
 
             boolean res = (Database.getTask("return").isEmpty());
             if(!res) {
@@ -3,10 +3,12 @@ package com.dt042g.project;
 import com.dt042g.project.controllers.CategoriesController;
 import com.dt042g.project.views.CategoriesPanel;
 import com.dt042g.project.views.CategoryForm;
+import com.dt042g.project.views.CategoryTableModel;
 import com.dt042g.project.views.SearchBar;
 import org.junit.jupiter.api.Test;
 
 import javax.swing.*;
+import javax.swing.event.TableModelEvent;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
@@ -16,7 +18,9 @@ import java.lang.reflect.Method;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -62,7 +66,7 @@ public class CategoriesControllerTest {
 
     /**
      * Test for removing the content inside CategoriesPanel, the
-     * expected result is that the panel has no child components.
+     * expected result is that the table has no rows.
      */
     @Test
     public void testRemovingCategories() {
@@ -77,10 +81,11 @@ public class CategoriesControllerTest {
         panel.clearCategoriesPanel();
 
         try {
-            Field field = panel.getClass().getDeclaredField("panel");
+            Field field = panel.getClass().getDeclaredField("table");
             field.setAccessible(true);
-            JPanel tempPanel = (JPanel) field.get(panel);
-            assertEquals(0, tempPanel.getComponentCount());
+            JTable table = (JTable) field.get(panel);
+            assertEquals(0, table.getRowCount());
+            assertFalse(panel.containsCategory("work"));
         } catch (NoSuchFieldException e) {
             System.out.println("field could not be found: "+e.getMessage());
             assert false;
@@ -117,13 +122,13 @@ public class CategoriesControllerTest {
             Method method = controller.getClass().getDeclaredMethod("addCategory");
             method.setAccessible(true);
 
-            method.invoke(controller);
+            ((CompletableFuture<?>) method.invoke(controller)).join();
 
             List<String> res = Database.getCategory("TaskTesting");
 
             Method deleteMethod = controller.getClass().getDeclaredMethod("deleteCategory", String.class);
             deleteMethod.setAccessible(true);
-            deleteMethod.invoke(controller, "TaskTesting");
+            ((CompletableFuture<?>) deleteMethod.invoke(controller, "TaskTesting")).join();
 
             List<String> res2 = Database.getCategory("TaskTesting");
 
@@ -228,22 +233,16 @@ public class CategoriesControllerTest {
 
         panel.addCategories(categories, mockListener);
         try {
-            Field field = panel.getClass().getDeclaredField("panel");
+            Field field = panel.getClass().getDeclaredField("table");
             field.setAccessible(true);
-            JPanel listPanel = (JPanel) field.get(panel);
-
-            Component[] components = listPanel.getComponents();
-            boolean check = false;
-
-            for (Component component : components) {
-                if (component instanceof JPanel) {
-                    Component[] subComponents = ((JPanel) component).getComponents();
-                    for (Component subComponent : subComponents) {
-                        if (subComponent instanceof JButton) {
-                            check = true;
-                            break;
-                        }
-                    }
+            JTable table = (JTable) field.get(panel);
+
+            boolean check = table.getRowCount() == categories.size();
+            int deleteColumn = table.getColumnCount() - 1;
+            for (int row = 0; row < table.getRowCount(); row++) {
+                Component cell = table.prepareRenderer(table.getCellRenderer(row, deleteColumn), row, deleteColumn);
+                if (!(cell instanceof JButton)) {
+                    check = false;
                 }
             }
 
@@ -257,6 +256,95 @@ public class CategoriesControllerTest {
         }
     }
 
+    /**
+     * Test for pressing the delete button of a row in a large table of categories.
+     * The expected result is that the name of the category in the row is signaled,
+     * and that removing it keeps every other category at its row.
+     */
+    @Test
+    public void testDeleteButton() throws Exception {
+        List<String> pressed = new ArrayList<>();
+        CategoriesPanel panel = new CategoriesPanel();
+
+        LinkedHashMap<String, String> categories = new LinkedHashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            categories.put("category " + i, "description " + i);
+        }
+        panel.addCategories(categories, e -> pressed.add(e.getActionCommand()));
+
+        Field field = panel.getClass().getDeclaredField("table");
+        field.setAccessible(true);
+        JTable table = (JTable) field.get(panel);
+        assertTrue(table.editCellAt(1234, table.getColumnCount() - 1));
+        ((JButton) table.getEditorComponent()).doClick();
+        assertEquals(List.of("category 1234"), pressed);
+
+        panel.removeCategory("category 1234");
+        CategoryTableModel model = (CategoryTableModel) table.getModel();
+        assertFalse(panel.containsCategory("category 1234"));
+        assertEquals(4999, model.getRowCount());
+        assertEquals(1234, model.indexOf("category 1235"), "Later rows should move up in the name index");
+        assertEquals(1233, model.indexOf("category 1233"));
+    }
+
+    /**
+     * Test for showing a new list of categories in place of the current one.
+     * The expected result is that the rows and the name index follow the new
+     * order, and that the rows are changed with as few events as possible.
+     */
+    @Test
+    public void testUpdatingCategories() {
+        CategoryTableModel model = new CategoryTableModel();
+        model.update(List.of(new Category("a", "1"), new Category("b", "2"), new Category("c", "3")));
+
+        List<String> events = new ArrayList<>();
+        model.addTableModelListener(e -> events.add(e.getType() + " " + e.getFirstRow() + "-" + e.getLastRow()));
+        model.update(List.of(new Category("c", "3"), new Category("a", "changed"), new Category("d", "4")));
+
+        assertEquals(List.of("c", "a", "d"), List.of(model.getCategory(0).name(), model.getCategory(1).name(),
+                model.getCategory(2).name()));
+        assertEquals(0, model.indexOf("c"));
+        assertEquals(2, model.indexOf("d"));
+        assertEquals(-1, model.indexOf("b"));
+        assertEquals("changed", model.getValueAt(1, 2));
+        assertEquals(List.of(TableModelEvent.DELETE + " 0-1", TableModelEvent.INSERT + " 1-2"), events,
+                "Neighbouring rows should be removed and inserted with one event each");
+    }
+
+    /**
+     * Test for showing the list of categories again after another controller
+     * was shown. The expected result is that the list is only searched again
+     * once a category has been added while it was hidden.
+     */
+    @Test
+    public void testResumingCategories() throws Exception {
+        CategoriesController controller = new CategoriesController(e -> {});
+        Field searchField = controller.getClass().getDeclaredField("searchBar");
+        searchField.setAccessible(true);
+        searchField.set(controller, new SearchBar(e -> {}));
+        Field catField = controller.getClass().getDeclaredField("categoriesPanel");
+        catField.setAccessible(true);
+        catField.set(controller, new CategoriesPanel());
+        Field pendingField = controller.getClass().getDeclaredField("pendingSearch");
+        pendingField.setAccessible(true);
+
+        Method searchMethod = controller.getClass().getDeclaredMethod("performSearch", String.class);
+        searchMethod.setAccessible(true);
+        searchMethod.invoke(controller, "");
+        Object search = pendingField.get(controller);
+
+        controller.resume(null);
+        assertSame(search, pendingField.get(controller), "Nothing changed, so the list should be kept as it is");
+
+        try {
+            Database.addCategory(List.of("resumeTesting", "description"));
+            controller.resume(null);
+            assertNotSame(search, pendingField.get(controller), "A new category should refresh the list");
+        } finally {
+            Database.deleteCategory("resumeTesting");
+        }
+    }
+
     /**
      * Test for attempting to delete a non-existing category from the database.
      * The expected result is that the delete-method returns false, as the
@@ -270,8 +358,8 @@ public class CategoriesControllerTest {
         try {
             Method deleteMethod = controller.getClass().getDeclaredMethod("deleteCategory", String.class);
             deleteMethod.setAccessible(true);
-            deleteMethod.invoke(controller, "taskTesting");
-            boolean res = (boolean)deleteMethod.invoke(controller, "taskTesting");
+            ((CompletableFuture<?>) deleteMethod.invoke(controller, "taskTesting")).join();
+            boolean res = (Boolean) ((CompletableFuture<?>) deleteMethod.invoke(controller, "taskTesting")).join();
 
             assertFalse(res);
         } catch (NoSuchMethodException e) {
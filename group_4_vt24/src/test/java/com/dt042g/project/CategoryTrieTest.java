@@ -0,0 +1,108 @@
+package com.dt042g.project;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class containing functions used to test the prefix trie of category names.
+ */
+public class CategoryTrieTest {
+
+    /**
+     * A test meant to ensure that prefix lookups find the names starting with the prefix.
+     * Expected result is every matching name in alphabetical order ignoring case, up to the limit.
+     */
+    @Test
+    public void testStartingWith() {
+        CategoryTrie trie = new CategoryTrie();
+        for (String name : new String[] {"Work", "workout", "World", "Home", "homework", "W"}) {
+            trie.add(name);
+        }
+
+        assertEquals(List.of("W", "Work", "workout", "World"), trie.startingWith("w", 10));
+        assertEquals(List.of("Work", "workout"), trie.startingWith("WORK", 2));
+        assertEquals(List.of("workout"), trie.startingWith("worko", 10), "A prefix ending inside an edge should match");
+        assertEquals(List.of("Home", "homework"), trie.startingWith("hom", 10));
+        assertTrue(trie.startingWith("wx", 10).isEmpty());
+        assertTrue(trie.startingWith("homeworks", 10).isEmpty());
+        assertEquals(6, trie.startingWith("", 10).size(), "An empty prefix should match every name");
+    }
+
+    /**
+     * A test meant to ensure that removing names keeps the trie compressed.
+     * Expected result is that removed names are no longer found, and that the trie
+     * goes back to the same number of nodes it had before they were added.
+     */
+    @Test
+    public void testRemove() {
+        CategoryTrie trie = new CategoryTrie();
+        trie.add("team");
+        trie.add("test");
+        int nodes = trie.nodeCount();
+
+        trie.add("tea");
+        trie.add("teams");
+        trie.add("Team");
+        trie.remove("tea");
+        trie.remove("teams");
+        trie.remove("Team");
+        trie.remove("missing");
+
+        assertEquals(List.of("team", "test"), trie.startingWith("te", 10));
+        assertEquals(2, trie.size());
+        assertEquals(nodes, trie.nodeCount(), "Removing names should merge the nodes left with a single child");
+    }
+
+    /**
+     * A test meant to ensure that the trie finds the same names as checking every name.
+     * Expected result is that random prefixes return exactly the names starting with them,
+     * and that the trie has at most two nodes per name.
+     */
+    @Test
+    public void testMatchesFullComparison() {
+        Random random = new Random(3);
+        CategoryTrie trie = new CategoryTrie();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String name = randomWord(random, 1 + random.nextInt(8));
+            if (!names.contains(name)) {
+                names.add(name);
+                trie.add(name);
+            }
+        }
+        for (int i = 0; i < 300; i++) {
+            trie.remove(names.remove(random.nextInt(names.size())));
+        }
+
+        assertTrue(trie.nodeCount() <= 2 * names.size() + 1);
+        for (int i = 0; i < 200; i++) {
+            String prefix = randomWord(random, random.nextInt(4));
+            List<String> expected = new ArrayList<>();
+            for (String name : names) {
+                if (name.startsWith(prefix)) expected.add(name);
+            }
+            expected.sort(null);
+            assertEquals(expected, trie.startingWith(prefix, names.size()), "Wrong names for '" + prefix + "'");
+        }
+    }
+
+    /**
+     * Private function used to generate a random lower-case word.
+     *
+     * @param random the random generator
+     * @param length the length of the word
+     * @return the word
+     */
+    private static String randomWord(Random random, int length) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(4)));
+        }
+        return word.toString();
+    }
+}
@@ -0,0 +1,102 @@
+package com.dt042g.project;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.sql.ResultSet;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class containing functions used to test how the ConnectionManager opens
+ * and tunes its connections.
+ */
+public class ConnectionManagerTest {
+
+    @TempDir
+    File tempDir;
+
+    /**
+     * A test meant to ensure that properties override single settings of a preset.
+     * Expected result is that the overridden setting changes while the rest of the preset is kept,
+     * indicating that configuration is layered on top of the named presets.
+     */
+    @Test
+    public void testPropertiesOverridePreset() {
+        Properties properties = new Properties();
+        properties.setProperty("profile", TuningProfile.THROUGHPUT);
+        properties.setProperty("mmapSize", "0");
+
+        TuningProfile profile = TuningProfile.fromProperties(properties);
+
+        assertEquals(TuningProfile.THROUGHPUT, profile.name());
+        assertEquals(0, profile.mmapSize(), "mmapSize should be overridden by the properties");
+        assertEquals(TuningProfile.preset(TuningProfile.THROUGHPUT).journalMode(), profile.journalMode(),
+                "settings that are not overridden should come from the preset");
+    }
+
+    /**
+     * A test meant to ensure that an unknown preset name is rejected.
+     * Expected result is an IllegalArgumentException,
+     * indicating that a typo in the configuration does not go unnoticed.
+     */
+    @Test
+    public void testUnknownPreset() {
+        assertThrows(IllegalArgumentException.class, () -> TuningProfile.preset("fastest"));
+    }
+
+    /**
+     * A test meant to ensure that the throughput preset is applied when connections are opened.
+     * Expected result is that the writer runs in WAL mode and readers use memory-mapped I/O,
+     * indicating that the profile's pragmas reach both kinds of connection.
+     */
+    @Test
+    public void testThroughputProfileApplied() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("profile", TuningProfile.THROUGHPUT);
+        properties.setProperty("url", "jdbc:sqlite:" + new File(tempDir, "tuning.db").getAbsolutePath());
+
+        try (ConnectionManager manager = new ConnectionManager(TuningProfile.fromProperties(properties))) {
+            String journalMode = manager.write(conn -> pragma(conn, "journal_mode"));
+            String mmapSize = manager.read(conn -> pragma(conn, "mmap_size"));
+
+            assertEquals("wal", journalMode);
+            assertEquals("268435456", mmapSize);
+        }
+    }
+
+    /**
+     * A test meant to ensure that the in-memory preset keeps its data while the manager is open.
+     * Expected result is that a table created through the writer can be read back through read(),
+     * indicating that reads share the writer's in-memory database.
+     */
+    @Test
+    public void testInMemoryProfile() throws Exception {
+        try (ConnectionManager manager = new ConnectionManager(TuningProfile.preset(TuningProfile.IN_MEMORY_TEST))) {
+            manager.write(conn -> conn.prepare("CREATE TABLE memory_test (value TEXT)").executeUpdate());
+            manager.write(conn -> conn.prepare("INSERT INTO memory_test VALUES ('kept')").executeUpdate());
+
+            String value = manager.read(conn -> {
+                try (ResultSet rs = conn.prepare("SELECT value FROM memory_test").executeQuery()) {
+                    return rs.next() ? rs.getString(1) : null;
+                }
+            });
+            assertEquals("kept", value);
+        }
+    }
+
+    /**
+     * Private function used to read the value of a pragma on a connection.
+     *
+     * @param conn the connection to read from
+     * @param name the name of the pragma
+     * @return the value of the pragma
+     */
+    private static String pragma(PooledConnection conn, String name) throws java.sql.SQLException {
+        try (ResultSet rs = conn.prepare("PRAGMA " + name).executeQuery()) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+}
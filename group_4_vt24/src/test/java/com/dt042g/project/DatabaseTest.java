@@ -2,7 +2,15 @@ package com.dt042g.project;
 
 import org.junit.jupiter.api.Test;
 
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -266,6 +274,20 @@ public class DatabaseTest {
         assertThrows(IllegalStateException.class, () -> Database.deleteCategory(existingCategoryName));
     }
 
+    /**
+     * A test meant to ensure that deleting a category that does not exist changes nothing.
+     * Expected result is that the category version stays the same and the referenced category still exists.
+     */
+    @Test
+    public void testDeleteMissingCategory() {
+        long version = Database.getCategoryVersion();
+        Database.deleteCategory("No such category");
+        assertEquals(version, Database.getCategoryVersion(), "Deleting no category should not change the categories");
+
+        assertThrows(IllegalStateException.class, () -> Database.deleteCategory(existingCategoryName));
+        assertTrue(Database.categoryExists(existingCategoryName), "A referenced category should not be deleted");
+    }
+
     /**
      * A test meant to ensure that isCategoryReferenced() can see if a category is referenced in any existing tasks.
      * Expected result from calling isCategoryReferenced() with a referenced category is true, and calling
@@ -280,4 +302,637 @@ public class DatabaseTest {
         assertFalse(Database.isCategoryReferenced("-----------"),
                 "Non-existing category '-----------' should not be referenced in any tasks");
     }
+
+    /**
+     * A test meant to ensure that the pooled connections can be used by several threads at once.
+     * Expected result is that every concurrent call to taskExists() finds the existing task,
+     * indicating that borrowed connections are not shared between threads.
+     */
+    @Test
+    public void testConcurrentReads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                results.add(executor.submit(() -> Database.taskExists(existingTaskName)));
+            }
+
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(), "Every concurrent read should find the task '" + existingTaskName + "'");
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * A test meant to ensure that repeated queries reuse their prepared statements.
+     * Expected result is that calling taskExists() again records cache hits but no new misses,
+     * indicating that the statement was not compiled a second time.
+     */
+    @Test
+    public void testStatementCacheHits() {
+        CacheStats stats = Database.getStatementCacheStats();
+        Database.taskExists(existingTaskName);
+
+        long hits = stats.getHits();
+        Database.taskExists(existingTaskName);
+
+        assertTrue(stats.getHits() > hits, "A repeated query should be answered by the statement cache");
+    }
+
+    /**
+     * A test meant to ensure that the statement cache stays within its capacity.
+     * Expected result is that the least recently used statement is closed when a third statement
+     * is prepared in a cache of two, indicating that evicted statements are released right away.
+     */
+    @Test
+    public void testStatementCacheEviction() throws Exception {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+             StatementCache cache = new StatementCache(conn, 2, new CacheStats())) {
+            PreparedStatement first = cache.prepare("SELECT 1");
+            cache.prepare("SELECT 2");
+            cache.prepare("SELECT 3");
+
+            assertEquals(2, cache.size(), "The cache should not grow past its capacity");
+            assertTrue(first.isClosed(), "The evicted statement should be closed");
+        }
+    }
+
+    /**
+     * A test meant to ensure that the full-text search supports prefix and phrase queries.
+     * Expected result is that a prefix of the task's information and a quoted phrase from its category
+     * find the existing task, while the same words as a phrase in the wrong order do not,
+     * indicating that the index is queried with the intended semantics.
+     */
+    @Test
+    public void testSearchTasks() {
+        assertTrue(Database.searchTasks("inf").contains(existingTaskName),
+                "A prefix of the information should find the task '" + existingTaskName + "'");
+        assertTrue(Database.searchTasks("\"" + existingCategoryName + "\"").contains(existingTaskName),
+                "The category as a phrase should find the task '" + existingTaskName + "'");
+        assertFalse(Database.searchTasks("\"category A\"").contains(existingTaskName),
+                "A phrase in the wrong order should not find the task '" + existingTaskName + "'");
+    }
+
+    /**
+     * A test meant to ensure that user input is turned into a safe full-text query.
+     * Expected result is that punctuation is dropped, words become prefixes and quoted text a phrase,
+     * indicating that search input cannot break the query syntax.
+     */
+    @Test
+    public void testFullTextQuery() {
+        assertEquals("\"weekly\"* \"team meeting\"", FullTextIndex.toMatchQuery("weekly \"team meeting\""));
+        assertNull(FullTextIndex.toMatchQuery("------"), "A query without words should match nothing");
+    }
+
+    /**
+     * A test meant to ensure that addTasks() reports the outcome of every row in a batch.
+     * Expected result is one inserted, one duplicate and one missing-category result, in input order,
+     * indicating that skipped rows do not stop the rest of the batch from being inserted.
+     */
+    @Test
+    public void testAddTasks() {
+        String batchTaskName = "A batched task";
+        List<List<String>> tasks = List.of(
+                Arrays.asList(batchTaskName, "info", existingCategoryName, "2000-01-01"),
+                Arrays.asList(existingTaskName, "info", existingCategoryName, "2000-01-01"),
+                Arrays.asList("A task without category", "info", "-----------", "2000-01-01"));
+
+        try {
+            List<InsertResult> results = Database.addTasks(tasks);
+
+            assertEquals(List.of(InsertResult.INSERTED, InsertResult.DUPLICATE, InsertResult.MISSING_CATEGORY),
+                    results);
+            assertTrue(Database.taskExists(batchTaskName), "addTasks() should add the task '" + batchTaskName + "'");
+        } finally {
+            Database.deleteTask(batchTaskName);
+        }
+    }
+
+    /**
+     * A test meant to ensure that addCategories() reports the outcome of every row in a batch.
+     * Expected result is one inserted and one duplicate result, in input order,
+     * indicating that existing category names are skipped instead of failing the batch.
+     */
+    @Test
+    public void testAddCategories() {
+        String batchCategoryName = "A batched category";
+        List<List<String>> categories = List.of(
+                Arrays.asList(batchCategoryName, "info"),
+                Arrays.asList(existingCategoryName, "info"));
+
+        try {
+            List<InsertResult> results = Database.addCategories(categories);
+
+            assertEquals(List.of(InsertResult.INSERTED, InsertResult.DUPLICATE), results);
+            assertTrue(Database.categoryExists(batchCategoryName),
+                    "addCategories() should add the category '" + batchCategoryName + "'");
+        } finally {
+            Database.deleteCategory(batchCategoryName);
+        }
+    }
+
+    /**
+     * A test meant to ensure that AsyncDatabase runs calls away from the calling thread.
+     * Expected result is that the future completes with the result of the call, computed on another thread,
+     * indicating that the caller, e.g. the event dispatch thread, is never blocked by the database.
+     */
+    @Test
+    public void testAsyncCall() throws Exception {
+        Thread caller = Thread.currentThread();
+
+        CompletableFuture<Thread> worker = AsyncDatabase.submit(Thread::currentThread);
+        CompletableFuture<Boolean> exists = AsyncDatabase.submit(() -> Database.taskExists(existingTaskName));
+
+        assertNotSame(caller, worker.get(5, TimeUnit.SECONDS), "The call should run on a database thread");
+        assertTrue(exists.get(5, TimeUnit.SECONDS), "The call should return the result of the database call");
+    }
+
+    /**
+     * A test meant to ensure that a call cancelled while waiting in the queue is never run.
+     * Expected result is that the cancelled call does not run once the busy database threads are released,
+     * indicating that stale requests do not reach the database.
+     */
+    @Test
+    public void testAsyncCancellation() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        // occupy every database thread
+        List<CompletableFuture<Void>> blockers = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            blockers.add(AsyncDatabase.run(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+
+        CompletableFuture<Void> cancelled = AsyncDatabase.run(() -> ran.set(true));
+        cancelled.cancel(false);
+        release.countDown();
+
+        CompletableFuture.allOf(blockers.toArray(CompletableFuture<?>[]::new)).get(5, TimeUnit.SECONDS);
+        AsyncDatabase.submit(() -> null).get(5, TimeUnit.SECONDS);
+
+        assertFalse(ran.get(), "A cancelled call should not be run");
+    }
+
+    /**
+     * A test meant to ensure that the category cache follows categories and the tasks referencing them.
+     * Expected result is that an added category is cached, is referenced only while a task belongs to it,
+     * and is removed from the cache once it is deleted.
+     */
+    @Test
+    public void testCategoryCacheReferences() {
+        String cachedCategoryName = "A cached category";
+        String cachedTaskName = "A cached task";
+
+        try {
+            Database.addCategory(Arrays.asList(cachedCategoryName, "info"));
+            assertTrue(Database.categoryExists(cachedCategoryName), "An added category should be cached");
+            assertFalse(Database.isCategoryReferenced(cachedCategoryName),
+                    "A new category should not be referenced");
+
+            Database.addTask(Arrays.asList(cachedTaskName, "info", cachedCategoryName, "2000-01-01"));
+            assertTrue(Database.isCategoryReferenced(cachedCategoryName),
+                    "A category should be referenced after a task is added to it");
+
+            Database.deleteTask(cachedTaskName);
+            assertFalse(Database.isCategoryReferenced(cachedCategoryName),
+                    "A category should not be referenced after its only task is deleted");
+        } finally {
+            Database.deleteTask(cachedTaskName);
+            Database.deleteCategory(cachedCategoryName);
+        }
+        assertFalse(Database.categoryExists(cachedCategoryName), "A deleted category should be removed from the cache");
+    }
+
+    /**
+     * A test meant to ensure that the category cache counts its hits and misses.
+     * Expected result is that looking up existing categories adds to the hits and looking up a missing category
+     * adds to the misses.
+     */
+    @Test
+    public void testCategoryCacheHits() {
+        Database.getCategories();
+        long hits = Database.getCategoryCacheStats().getHits();
+        long misses = Database.getCategoryCacheStats().getMisses();
+
+        Database.categoryExists(existingCategoryName);
+        Database.getCategory(existingCategoryName);
+        Database.categoryExists("No such category");
+
+        assertEquals(hits + 2, Database.getCategoryCacheStats().getHits(),
+                "Lookups of existing categories should count as hits");
+        assertEquals(misses + 1, Database.getCategoryCacheStats().getMisses(),
+                "Lookups of missing categories should count as misses");
+    }
+
+    /**
+     * A test meant to ensure that paging through the tasks returns every task.
+     * Expected result is that no page holds more tasks than the page size and that the pages together hold every
+     * task once, ordered by name.
+     */
+    @Test
+    public void testTaskPages() {
+        List<String> pagedNames = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+
+        do {
+            TaskPage page = Database.getTaskPage(cursor, 2);
+            assertTrue(page.tasks().size() <= 2, "A page should not hold more tasks than the page size");
+            for (TaskSummary task : page.tasks()) {
+                pagedNames.add(task.name());
+            }
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null && pages < 1000);
+
+        List<String> allNames = new ArrayList<>(Database.getTaskNames());
+        Collections.sort(allNames);
+        assertEquals(allNames, pagedNames, "Paging through the tasks should return every task once, in order");
+    }
+
+    /**
+     * A test meant to ensure that asking for a task page with invalid arguments throws an IllegalArgumentException.
+     * Expected result is that a page size of zero and a malformed cursor both result in an IllegalArgumentException.
+     */
+    @Test
+    public void testInvalidTaskPage() {
+        assertThrows(IllegalArgumentException.class, () -> Database.getTaskPage(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> Database.getTaskPage("not a cursor!", 10));
+    }
+
+    /**
+     * A test meant to ensure that findTask() finds an existing task and only an existing task.
+     * Expected result is that the task in the database is found with its category and parsed due date, and that
+     * a non-existing task gives an empty Optional.
+     */
+    @Test
+    public void testFindTask() {
+        Optional<Task> task = Database.findTask(existingTaskName);
+
+        assertTrue(task.isPresent(), "findTask() should find the task '" + existingTaskName + "'");
+        assertEquals(existingTaskName, task.get().name());
+        assertEquals(existingCategoryName, task.get().category());
+        assertEquals(LocalDate.of(2000, 1, 1), task.get().dueDate(),
+                "findTask() should parse the due date of the task");
+        assertEquals(Database.getTask(existingTaskName), task.get().toValues());
+        assertTrue(Database.findTask("------").isEmpty(), "findTask() should not find a non-existing task");
+    }
+
+    /**
+     * A test meant to ensure that findCategory() finds an existing category and only an existing category.
+     * Expected result is that the category in the database is found with the same values as getCategory() and that
+     * a non-existing category gives an empty Optional.
+     */
+    @Test
+    public void testFindCategory() {
+        Optional<Category> category = Database.findCategory(existingCategoryName);
+
+        assertTrue(category.isPresent(), "findCategory() should find the category '" + existingCategoryName + "'");
+        assertEquals(Database.getCategory(existingCategoryName), category.get().toValues());
+        assertTrue(Database.findCategory("------").isEmpty(), "findCategory() should not find a non-existing category");
+    }
+
+    /**
+     * A test meant to ensure that every task and category can be read at once.
+     * Expected result is that getAllTasks() and getAllCategories() return every task and category, ordered by name.
+     */
+    @Test
+    public void testGetAllTasksAndCategories() {
+        List<String> taskNames = new ArrayList<>();
+        for (Task task : Database.getAllTasks()) {
+            taskNames.add(task.name());
+        }
+        List<String> categoryNames = new ArrayList<>();
+        for (Category category : Database.getAllCategories()) {
+            categoryNames.add(category.name());
+        }
+
+        List<String> expectedTasks = new ArrayList<>(Database.getTaskNames());
+        Collections.sort(expectedTasks);
+        List<String> expectedCategories = new ArrayList<>(Database.getCategories().keySet());
+        Collections.sort(expectedCategories);
+        assertEquals(expectedTasks, taskNames, "getAllTasks() should return every task ordered by name");
+        assertEquals(expectedCategories, categoryNames, "getAllCategories() should return every category ordered by name");
+    }
+
+    /**
+     * A test meant to ensure that streaming the tasks returns every task.
+     * Expected result is that streamTasks() returns the same tasks as getAllTasks(), ordered by name.
+     */
+    @Test
+    public void testStreamTasks() {
+        List<String> expected = new ArrayList<>();
+        for (Task task : Database.getAllTasks()) {
+            expected.add(task.name());
+        }
+
+        List<String> streamed;
+        try (Stream<Task> tasks = Database.streamTasks(1)) {
+            streamed = tasks.map(Task::name).toList();
+        }
+        assertEquals(expected, streamed, "streamTasks() should return every task ordered by name");
+    }
+
+    /**
+     * A test meant to ensure that a closed stream of tasks gives its connection back to the pool.
+     * Expected result is that more streams than there are pooled readers can be opened and closed early without
+     * blocking, and that a fetch size of zero results in an IllegalArgumentException.
+     */
+    @Test
+    public void testStreamReleasesConnection() {
+        // more streams than there are pooled readers, each closed before it is consumed to the end
+        int streams = 2 * TuningProfile.load().readerPoolSize() + 1;
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (int i = 0; i < streams; i++) {
+                try (Stream<Task> tasks = Database.streamTasks(16)) {
+                    assertTrue(tasks.findFirst().isPresent(), "A stream of tasks should not be empty");
+                }
+            }
+            assertFalse(Database.getTaskNames().isEmpty(), "Reads after the streams should get a reader");
+        }, "A closed stream should give its reader back to the pool");
+        assertThrows(IllegalArgumentException.class, () -> Database.streamTasks(0));
+    }
+
+    /**
+     * A test meant to ensure that the database is migrated to the latest schema.
+     * Expected result is that the schema version is the latest one and that the task table has its indexes.
+     */
+    @Test
+    public void testSchemaMigrated() {
+        assertEquals(Migrations.latestVersion(), Database.getSchemaVersion(),
+                "The database should be migrated to the latest schema when it is first used");
+        assertEquals(List.of("task_category_index", "task_due_date_index"), Database.getIndexNames("task"));
+    }
+
+    /**
+     * A test meant to ensure that tasks can be found and deleted by their ids.
+     * Expected result is that findTask() finds the task by its id, that searched tasks carry their ids and that
+     * deleteTask() removes the task by its id.
+     */
+    @Test
+    public void testTaskIds() {
+        String idTaskName = "A task with an id";
+
+        try {
+            Database.addTask(Arrays.asList(idTaskName, "info", existingCategoryName, "2000-01-01"));
+            Task task = Database.findTask(idTaskName).orElseThrow();
+
+            assertEquals(Optional.of(task), Database.findTask(task.id()), "findTask() should find a task by its id");
+            assertTrue(Database.getSearchedTasks(idTaskName).contains(new TaskSummary(task.id(), idTaskName)),
+                    "Searched tasks should carry their ids");
+
+            Database.deleteTask(task.id());
+            assertFalse(Database.taskExists(idTaskName), "deleteTask() should remove a task by its id");
+        } finally {
+            Database.deleteTask(idTaskName);
+        }
+    }
+
+    /**
+     * A test meant to ensure that tasks can be queried by their due dates.
+     * Expected result is that the tasks due in a range are returned ordered by due date, that only earlier tasks
+     * are overdue and that the next task due is returned.
+     */
+    @Test
+    public void testDueDateQueries() {
+        List<String> names = List.of("Due early 1901", "Due late 1901");
+
+        try {
+            Database.addTask(Arrays.asList(names.get(0), "info", existingCategoryName, "1901-02-01"));
+            Database.addTask(Arrays.asList(names.get(1), "info", existingCategoryName, "1901-11-01"));
+
+            List<Task> between = Database.getTasksDueBetween(LocalDate.of(1901, 1, 1), LocalDate.of(1901, 12, 31));
+            assertEquals(names, between.stream().map(Task::name).toList(),
+                    "getTasksDueBetween() should return the tasks in the range ordered by due date");
+            assertEquals(LocalDate.of(1901, 2, 1), between.get(0).dueDate());
+
+            assertEquals(List.of(names.get(0)), Database.getOverdueTasks(LocalDate.of(1901, 6, 1))
+                    .stream().map(Task::name).toList(), "getOverdueTasks() should only return earlier tasks");
+            assertEquals(List.of(names.get(1)), Database.getNextDueTasks(LocalDate.of(1901, 6, 1), 1)
+                    .stream().map(Task::name).toList(), "getNextDueTasks() should return the next task due");
+        } finally {
+            names.forEach(Database::deleteTask);
+        }
+    }
+
+    /**
+     * A test meant to ensure that a task with an invalid due date is not added.
+     * Expected result is that addTask() throws an IllegalArgumentException, that addTasks() reports the invalid due
+     * date and that the task does not exist afterwards.
+     */
+    @Test
+    public void testInvalidDueDate() {
+        String invalidTaskName = "A task due on a day that does not exist";
+
+        assertThrows(IllegalArgumentException.class, () ->
+                Database.addTask(Arrays.asList(invalidTaskName, "info", existingCategoryName, "2023-02-29")));
+        assertEquals(List.of(InsertResult.INVALID_DUE_DATE), Database.addTasks(
+                List.of(Arrays.asList(invalidTaskName, "info", existingCategoryName, "01-01-2023"))));
+        assertFalse(Database.taskExists(invalidTaskName));
+    }
+
+    /**
+     * A test meant to ensure that searching finds text anywhere in a task.
+     * Expected result is that the task is found by text in the middle of its name, ignoring case, and by text in
+     * its category, and that it is no longer found once deleted.
+     */
+    @Test
+    public void testSubstringSearch() {
+        String substringTaskName = "Renew the passport";
+
+        try {
+            Database.addTask(Arrays.asList(substringTaskName, "info", existingCategoryName, "2000-01-01"));
+
+            assertTrue(Database.getSearchedTaskNames("SSPO").contains(substringTaskName),
+                    "Search should match text in the middle of a task name, ignoring case");
+            assertTrue(Database.getSearchedTaskNames("categ").contains(substringTaskName),
+                    "Search should match text in the category of a task");
+
+            Database.deleteTask(substringTaskName);
+            assertFalse(Database.getSearchedTaskNames("sspo").contains(substringTaskName),
+                    "A deleted task should not be found");
+        } finally {
+            Database.deleteTask(substringTaskName);
+        }
+    }
+
+    /**
+     * A test meant to ensure that searches are cached and that changing the tasks invalidates the cache.
+     * Expected result is that repeating a search in another case is a cache hit and that adding or deleting a task
+     * is reflected in the next search.
+     */
+    @Test
+    public void testSearchCache() {
+        String cachedSearchTaskName = "Water the orchids";
+
+        try {
+            Database.getSearchedTaskNames("orchid");
+            long hits = Database.getTaskSearchCacheStats().getHits();
+            assertFalse(Database.getSearchedTaskNames("ORCHID").contains(cachedSearchTaskName));
+            assertEquals(hits + 1, Database.getTaskSearchCacheStats().getHits(),
+                    "Repeating a search in another case should be answered by the cache");
+
+            Database.addTask(Arrays.asList(cachedSearchTaskName, "info", existingCategoryName, "2000-01-01"));
+            assertTrue(Database.getSearchedTaskNames("orchid").contains(cachedSearchTaskName),
+                    "Adding a task should invalidate cached searches");
+
+            Database.deleteTask(cachedSearchTaskName);
+            assertFalse(Database.getSearchedTaskNames("orchid").contains(cachedSearchTaskName),
+                    "Deleting a task should invalidate cached searches");
+        } finally {
+            Database.deleteTask(cachedSearchTaskName);
+        }
+    }
+
+    /**
+     * A test meant to ensure that the task version only changes when the tasks change.
+     * Expected result is that reading tasks keeps the task version, that adding or deleting a task changes it and
+     * that adding a task keeps the category version.
+     */
+    @Test
+    public void testDataVersions() {
+        String versionedTaskName = "Renew the library card";
+
+        try {
+            long tasks = Database.getTaskVersion();
+            long categories = Database.getCategoryVersion();
+            Database.getSearchedTaskNames("library");
+            assertEquals(tasks, Database.getTaskVersion(), "Reading tasks should not change their version");
+
+            Database.addTask(Arrays.asList(versionedTaskName, "info", existingCategoryName, "2000-01-01"));
+            assertNotEquals(tasks, Database.getTaskVersion(), "Adding a task should change the task version");
+            assertEquals(categories, Database.getCategoryVersion(),
+                    "Adding a task should not change the category version");
+
+            tasks = Database.getTaskVersion();
+            Database.deleteTask(versionedTaskName);
+            assertNotEquals(tasks, Database.getTaskVersion(), "Deleting a task should change the task version");
+        } finally {
+            Database.deleteTask(versionedTaskName);
+        }
+    }
+
+    /**
+     * A test meant to ensure that extending a search query narrows down the earlier results correctly.
+     * Expected result is that for every extended query the task is found exactly when its name contains the query.
+     */
+    @Test
+    public void testRefinedSearch() {
+        String refinedTaskName = "Book the meeting room";
+
+        try {
+            Database.addTask(Arrays.asList(refinedTaskName, "info", existingCategoryName, "2000-01-01"));
+
+            for (String query : new String[] {"m", "mee", "meet", "meeting", "meeting r", "meeting x"}) {
+                ArrayDeque<String> refined = Database.getSearchedTaskNames(query);
+                assertEquals(refined.contains(refinedTaskName), TrigramIndex.containsIgnoreCase(refinedTaskName, query),
+                        "Extending the query '" + query + "' should narrow down the earlier results");
+            }
+        } finally {
+            Database.deleteTask(refinedTaskName);
+        }
+    }
+
+    /**
+     * A test meant to ensure that fuzzy search finds tasks and categories despite misspellings.
+     * Expected result is that a misspelled query finds the task within the allowed distance but not beyond it,
+     * that a too large distance results in an IllegalArgumentException and that a deleted task is not found.
+     */
+    @Test
+    public void testFuzzySearch() {
+        String fuzzyTaskName = "Schedule dentist appointment";
+
+        try {
+            Database.addTask(Arrays.asList(fuzzyTaskName, "info", existingCategoryName, "2000-01-01"));
+
+            assertTrue(Database.getSearchedTaskNames("dentsit apointment").isEmpty());
+            assertTrue(names(Database.getFuzzyTasks("dentsit apointment", 2)).contains(fuzzyTaskName),
+                    "A misspelled query should find the task");
+            assertFalse(names(Database.getFuzzyTasks("dentsit apointment", 1)).contains(fuzzyTaskName),
+                    "A query further away than allowed should not find the task");
+            assertTrue(Database.getFuzzyCategories(existingCategoryName + "x", 1).containsKey(existingCategoryName),
+                    "A misspelled query should find the category");
+            assertThrows(IllegalArgumentException.class, () -> Database.getFuzzyTasks("dentist", 3));
+
+            Database.deleteTask(fuzzyTaskName);
+            assertFalse(names(Database.getFuzzyTasks("dentsit apointment", 2)).contains(fuzzyTaskName),
+                    "A deleted task should not be found");
+        } finally {
+            Database.deleteTask(fuzzyTaskName);
+        }
+    }
+
+    /**
+     * A test meant to ensure that ranked search orders tasks by how well they match.
+     * Expected result is that a match in the name ranks above a match in the information, that the limit is kept
+     * and that a limit of zero results in an IllegalArgumentException.
+     */
+    @Test
+    public void testRankedSearch() {
+        String nameMatch = "Quarterly budget review";
+        String informationMatch = "Email the accountant";
+
+        try {
+            Database.addTask(Arrays.asList(informationMatch, "Ask about the quarterly budget",
+                    existingCategoryName, "2000-01-01"));
+            Database.addTask(Arrays.asList(nameMatch, "info", existingCategoryName, "2000-01-01"));
+
+            assertEquals(List.of(nameMatch, informationMatch),
+                    new ArrayList<>(Database.getRankedTaskNames("quarterly budget", 10)),
+                    "A match in the name should rank above a match in the information");
+            assertEquals(List.of(nameMatch), new ArrayList<>(Database.getRankedTaskNames("quarterly budg", 1)),
+                    "Only the best matches up to the limit should be returned");
+            assertTrue(Database.getRankedTaskNames("accountant", 10).contains(informationMatch));
+            assertThrows(IllegalArgumentException.class, () -> Database.getRankedTasks("budget", 0));
+        } finally {
+            Database.deleteTask(nameMatch);
+            Database.deleteTask(informationMatch);
+        }
+    }
+
+    /**
+     * A test meant to ensure that categories can be found by the start of their names.
+     * Expected result is that a prefix finds the category ignoring case, that text in the middle of the name does
+     * not match and that a deleted category is not found.
+     */
+    @Test
+    public void testCategoryPrefixSearch() {
+        String prefixCategoryName = "Zz prefix category";
+
+        try {
+            Database.addCategory(Arrays.asList(prefixCategoryName, "description"));
+            assertEquals(List.of(prefixCategoryName), Database.getCategoryNamesStartingWith("zZ PRE", 5),
+                    "A prefix should find the category, ignoring case");
+            assertTrue(Database.getCategoryNamesStartingWith("prefix", 5).isEmpty(),
+                    "Text in the middle of a name should not match a prefix");
+
+            Database.deleteCategory(prefixCategoryName);
+            assertTrue(Database.getCategoryNamesStartingWith("zz pre", 5).isEmpty(),
+                    "A deleted category should not be found");
+        } finally {
+            Database.deleteCategory(prefixCategoryName);
+        }
+    }
+
+    /**
+     * Private function used to get the names of a list of tasks.
+     *
+     * @param tasks the tasks
+     * @return the names of the tasks
+     */
+    private static List<String> names(Collection<TaskSummary> tasks) {
+        List<String> names = new ArrayList<>();
+        for (TaskSummary task : tasks) {
+            names.add(task.name());
+        }
+        return names;
+    }
 }
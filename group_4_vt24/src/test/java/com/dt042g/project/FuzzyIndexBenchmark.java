@@ -0,0 +1,117 @@
+package com.dt042g.project;
+
+import java.util.*;
+
+/**
+ * Benchmark comparing typo-tolerant searches through the BK-tree of the
+ * fuzzy index with comparing the query to the words of every name, on
+ * generated task names. Not run as part of the tests, run its main method
+ * with the test classpath, optionally passing the numbers of names as arguments.
+ */
+public class FuzzyIndexBenchmark {
+    private static final String[] WORDS = {"work", "meeting", "groceries", "gym", "project", "plan", "call",
+            "report", "invoice", "dentist", "birthday", "laundry", "review", "deploy", "garden", "taxes"};
+    private static final String[] QUERIES = {"meetnig", "grocreies", "dentsit", "invocie 1234", "projetc 99999",
+            "zzzzzz"};
+    private static final int MAX_DISTANCE = 2;
+    private static final int ROUNDS = 20;
+
+    /**
+     * Function used to run the benchmark.
+     *
+     * @param args the numbers of names to benchmark with, 10000 and 100000 by default
+     */
+    public static void main(String[] args) throws Exception {
+        int[] sizes = args.length == 0 ? new int[] {10_000, 100_000} : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+
+        System.out.printf("%10s %10s %12s %14s %14s %10s%n", "names", "words", "build ms", "scan us/query",
+                "index us/query", "speedup");
+        for (int size : sizes) {
+            run(size);
+        }
+    }
+
+    /**
+     * Private function used to benchmark one number of names.
+     *
+     * @param size the number of names to generate
+     */
+    private static void run(int size) throws Exception {
+        Random random = new Random(size);
+        List<String> names = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            names.add(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i);
+        }
+
+        FuzzyIndex<Integer> index = new FuzzyIndex<>(Comparator.<Integer>naturalOrder());
+        long start = System.nanoTime();
+        index.load(add -> {
+            for (int i = 0; i < names.size(); i++) {
+                add.accept(i, new String[] {names.get(i)});
+            }
+        });
+        long buildNanos = System.nanoTime() - start;
+
+        long scanMatches = 0;
+        long indexMatches = 0;
+        start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (String query : QUERIES) {
+                scanMatches += scan(names, query);
+            }
+        }
+        long scanNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (String query : QUERIES) {
+                indexMatches += index.search(query, MAX_DISTANCE).size();
+            }
+        }
+        long indexNanos = System.nanoTime() - start;
+
+        if (scanMatches != indexMatches) {
+            throw new IllegalStateException("The scan found " + scanMatches + " matches, the index " + indexMatches);
+        }
+
+        int queries = ROUNDS * QUERIES.length;
+        System.out.printf("%10d %10d %12d %14d %14d %9.1fx%n", size, index.wordCount(), buildNanos / 1_000_000,
+                scanNanos / queries / 1000, indexNanos / queries / 1000, (double) scanNanos / indexNanos);
+    }
+
+    /**
+     * Private function used to count the names matching a query by comparing
+     * every word of the query to every word of every name.
+     *
+     * @param names the names to search
+     * @param query the words to search for
+     * @return the number of matching names
+     */
+    private static int scan(List<String> names, String query) {
+        String[] queryWords = query.split(" ");
+        int matches = 0;
+        for (String name : names) {
+            String[] words = name.split(" ");
+            boolean matching = true;
+            for (String queryWord : queryWords) {
+                int allowed = Math.min(MAX_DISTANCE, queryWord.length() <= 2 ? 0 : queryWord.length() <= 5 ? 1 : 2);
+                boolean found = false;
+                for (String word : words) {
+                    if (FuzzyIndex.distance(queryWord, word) <= allowed) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    matching = false;
+                    break;
+                }
+            }
+            if (matching) matches++;
+        }
+        return matches;
+    }
+}
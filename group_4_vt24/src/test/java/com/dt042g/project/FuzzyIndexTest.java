@@ -0,0 +1,149 @@
+package com.dt042g.project;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class containing functions used to test the BK-tree index used for
+ * typo-tolerant searches.
+ */
+public class FuzzyIndexTest {
+
+    /**
+     * A test meant to ensure that the edit distance counts inserted, deleted and replaced characters.
+     * Expected result is the number of single character edits between the words.
+     */
+    @Test
+    public void testDistance() {
+        assertEquals(0, FuzzyIndex.distance("meeting", "meeting"));
+        assertEquals(1, FuzzyIndex.distance("meeting", "meting"));
+        assertEquals(1, FuzzyIndex.distance("meeting", "meetings"));
+        assertEquals(1, FuzzyIndex.distance("meeting", "meetimg"));
+        assertEquals(2, FuzzyIndex.distance("meeting", "meetnig"));
+        assertEquals(3, FuzzyIndex.distance("kitten", "sitting"));
+        assertEquals(4, FuzzyIndex.distance("", "plan"));
+    }
+
+    /**
+     * A test meant to ensure that searches find misspelled words, closest first.
+     * Expected result is that every word of the query has to be close to a word of the key,
+     * ignoring case, and that keys with fewer edits come first.
+     */
+    @Test
+    public void testSearch() {
+        FuzzyIndex<String> index = load(List.of("Team meeting", "Meeting notes", "Metering report", "Groceries"));
+
+        assertEquals(List.of("Meeting notes", "Team meeting"), index.search("MEETNG", 2));
+        assertEquals(List.of("Meeting notes", "Team meeting", "Metering report"), index.search("meetring", 2),
+                "Keys should be ranked by their distance to the query");
+        assertEquals(List.of("Team meeting"), index.search("teem meetng", 2),
+                "Every word of the query should have to match");
+        assertEquals(List.of("Groceries"), index.search("grocreies", 2));
+        assertTrue(index.search("grocreies", 1).isEmpty(), "Two edits should not be allowed with a distance of one");
+        assertEquals(List.of("Team meeting"), index.search("tem", 2), "Short words should allow a single edit");
+        assertTrue(index.search("te", 2).isEmpty(), "Words of two characters should have to match exactly");
+        assertThrows(IllegalArgumentException.class, () -> index.search("meeting", 3));
+    }
+
+    /**
+     * A test meant to ensure that the BK-tree finds the same words as comparing the query to every word.
+     * Expected result is that random misspelled queries return exactly the keys within the allowed distance.
+     */
+    @Test
+    public void testSearchMatchesFullComparison() {
+        Random random = new Random(7);
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            words.add(randomWord(random, 4 + random.nextInt(6)));
+        }
+        FuzzyIndex<String> index = load(words);
+
+        for (int i = 0; i < 200; i++) {
+            String query = misspell(random, words.get(random.nextInt(words.size())));
+            int allowed = query.length() <= 2 ? 0 : query.length() <= 5 ? 1 : 2;
+
+            Set<String> expected = new HashSet<>();
+            for (String word : words) {
+                if (FuzzyIndex.distance(query, word) <= allowed) expected.add(word);
+            }
+            assertEquals(expected, new HashSet<>(index.search(query, 2)), "Wrong matches for '" + query + "'");
+        }
+    }
+
+    /**
+     * A test meant to ensure that removed keys are no longer found, also after the tree is rebuilt.
+     * Expected result is that only the remaining keys are found.
+     */
+    @Test
+    public void testRemove() {
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            words.add("task" + i);
+        }
+        FuzzyIndex<String> index = load(words);
+
+        for (int i = 0; i < 450; i++) {
+            index.remove("task" + i);
+        }
+        assertEquals(50, index.wordCount());
+        assertFalse(index.search("task12", 2).contains("task12"), "A removed key should not be found");
+        assertTrue(index.search("task499", 0).contains("task499"));
+
+        index.add("task12", "task12");
+        assertTrue(index.search("task12", 0).contains("task12"), "A key added again should be found");
+    }
+
+    /**
+     * Private function used to create an index with every text as its own key.
+     *
+     * @param texts the texts to index
+     * @return the loaded index
+     */
+    private static FuzzyIndex<String> load(List<String> texts) {
+        FuzzyIndex<String> index = new FuzzyIndex<>(Comparator.<String>naturalOrder());
+        assertDoesNotThrow(() -> index.load(add -> {
+            for (String text : texts) {
+                add.accept(text, new String[] {text});
+            }
+        }));
+        return index;
+    }
+
+    /**
+     * Private function used to generate a random lower-case word.
+     *
+     * @param random the random generator
+     * @param length the length of the word
+     * @return the word
+     */
+    private static String randomWord(Random random, int length) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(6)));
+        }
+        return word.toString();
+    }
+
+    /**
+     * Private function used to make up to two random edits to a word.
+     *
+     * @param random the random generator
+     * @param word the word
+     * @return the misspelled word
+     */
+    private static String misspell(Random random, String word) {
+        StringBuilder misspelled = new StringBuilder(word);
+        for (int edits = random.nextInt(3); edits > 0 && misspelled.length() > 1; edits--) {
+            int at = random.nextInt(misspelled.length());
+            switch (random.nextInt(3)) {
+                case 0 -> misspelled.deleteCharAt(at);
+                case 1 -> misspelled.insert(at, (char) ('a' + random.nextInt(6)));
+                default -> misspelled.setCharAt(at, (char) ('a' + random.nextInt(6)));
+            }
+        }
+        return misspelled.toString();
+    }
+}
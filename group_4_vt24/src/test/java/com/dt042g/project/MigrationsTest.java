@@ -0,0 +1,203 @@
+package com.dt042g.project;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class containing functions used to test how the Migrations class brings
+ * the schema of a database up to date.
+ */
+public class MigrationsTest {
+
+    @TempDir
+    File tempDir;
+
+    /**
+     * A test meant to ensure that an empty database is migrated to the latest schema.
+     * Expected result is that the schema version is the latest one and the tables exist,
+     * indicating that the migrations can create the database from nothing.
+     */
+    @Test
+    public void testMigrateEmptyDatabase() throws Exception {
+        try (ConnectionManager manager = manager("empty.db")) {
+            assertEquals(Migrations.latestVersion(), Migrations.migrate(manager));
+            assertEquals(Migrations.latestVersion(), manager.read(Migrations::version));
+            assertEquals("1", query(manager, "SELECT COUNT(*) FROM sqlite_master WHERE name = 'task'"));
+            assertEquals("1", query(manager, "SELECT COUNT(*) FROM sqlite_master WHERE name = 'category'"));
+        }
+    }
+
+    /**
+     * A test meant to ensure that a database from before the migrations keeps its rows.
+     * Expected result is that the leftover "task_old" table is dropped while the tasks are
+     * kept, given an id and an integer due date, and can be found through the full-text index.
+     */
+    @Test
+    public void testMigrateLegacyDatabase() throws Exception {
+        try (ConnectionManager manager = manager("legacy.db")) {
+            manager.write(conn -> {
+                conn.prepare("CREATE TABLE category (name TEXT PRIMARY KEY, description TEXT)").executeUpdate();
+                conn.prepare("CREATE TABLE task (name text primary key, information text not null, "
+                        + "category text, due_date text not null)").executeUpdate();
+                conn.prepare("CREATE TABLE task_old (name text)").executeUpdate();
+                conn.prepare("INSERT INTO task VALUES ('Legacy task', 'info', 'Work', '2024-01-01')").executeUpdate();
+                return conn.prepare("INSERT INTO task VALUES ('Undated task', 'info', 'Work', 'soon')").executeUpdate();
+            });
+
+            Migrations.migrate(manager);
+
+            assertEquals("0", query(manager, "SELECT COUNT(*) FROM sqlite_master WHERE name = 'task_old'"),
+                    "The leftover task_old table should be dropped");
+            assertEquals("Legacy task", query(manager, "SELECT name FROM task_fts WHERE task_fts MATCH 'legacy'"),
+                    "Existing tasks should be added to the full-text index");
+            assertEquals("1", query(manager, "SELECT task_id FROM task WHERE name = 'Legacy task'"),
+                    "Existing tasks should keep their rowid as their id");
+            assertEquals(String.valueOf(LocalDate.of(2024, 1, 1).toEpochDay()),
+                    query(manager, "SELECT due_date FROM task WHERE name = 'Legacy task'"),
+                    "Due dates should be stored as days since 1970-01-01");
+            assertNull(query(manager, "SELECT due_date FROM task WHERE name = 'Undated task'"),
+                    "Due dates that are not dates should be cleared");
+        }
+    }
+
+    /**
+     * A test meant to ensure that migrated tasks are read back with the right due dates.
+     * Expected result is that a task whose old due date was not a date has no due date,
+     * and that a task without a category keeps its due date.
+     */
+    @Test
+    public void testReadMigratedDueDates() throws Exception {
+        try (ConnectionManager manager = manager("dates.db")) {
+            manager.write(conn -> {
+                conn.prepare("CREATE TABLE category (name TEXT PRIMARY KEY, description TEXT)").executeUpdate();
+                conn.prepare("CREATE TABLE task (name text primary key, information text not null, "
+                        + "category text, due_date text not null)").executeUpdate();
+                conn.prepare("INSERT INTO task VALUES ('Undated task', 'info', 'Work', 'soon')").executeUpdate();
+                return conn.prepare("INSERT INTO task VALUES ('Uncategorized task', 'info', NULL, '2024-01-01')")
+                        .executeUpdate();
+            });
+
+            Migrations.migrate(manager);
+
+            assertNull(task(manager, "Undated task").dueDate(),
+                    "A task whose due date was not a date should have no due date");
+            Task uncategorized = task(manager, "Uncategorized task");
+            assertNull(uncategorized.category());
+            assertEquals(LocalDate.of(2024, 1, 1), uncategorized.dueDate(),
+                    "A task without a category should keep its due date");
+        }
+    }
+
+    /**
+     * A test meant to ensure that migrating twice does nothing the second time.
+     * Expected result is the same schema version after both runs.
+     */
+    @Test
+    public void testMigrateTwice() throws Exception {
+        try (ConnectionManager manager = manager("twice.db")) {
+            Migrations.migrate(manager);
+            assertEquals(Migrations.latestVersion(), Migrations.migrate(manager));
+        }
+    }
+
+    /**
+     * A test meant to ensure that a database from a newer version of the program is not touched.
+     * Expected result is an IllegalStateException.
+     */
+    @Test
+    public void testNewerSchemaRejected() throws Exception {
+        try (ConnectionManager manager = manager("newer.db")) {
+            manager.write(conn -> conn.prepare("PRAGMA user_version = " + (Migrations.latestVersion() + 1))
+                    .executeUpdate());
+
+            assertThrows(IllegalStateException.class, () -> Migrations.migrate(manager));
+        }
+    }
+
+    /**
+     * A test meant to ensure that category and due date lookups use the new indexes.
+     * Expected result is that SQLite plans both queries as index searches instead of table scans.
+     */
+    @Test
+    public void testQueriesUseIndexes() throws Exception {
+        try (ConnectionManager manager = manager("indexes.db")) {
+            Migrations.migrate(manager);
+
+            assertTrue(plan(manager, "SELECT 1 FROM task WHERE category = 'Work'").contains("task_category_index"));
+            assertTrue(plan(manager, "SELECT name FROM task WHERE due_date BETWEEN 19723 AND 19730")
+                    .contains("task_due_date_index"));
+        }
+    }
+
+    /**
+     * Private function used to create a connection manager for a new database file.
+     *
+     * @param fileName the name of the database file in the temporary directory
+     * @return the connection manager
+     */
+    private ConnectionManager manager(String fileName) {
+        Properties properties = new Properties();
+        properties.setProperty("url", "jdbc:sqlite:" + new File(tempDir, fileName).getAbsolutePath());
+        return new ConnectionManager(TuningProfile.fromProperties(properties));
+    }
+
+    /**
+     * Private function used to read the first column of the first row of a query.
+     *
+     * @param manager the connections to query
+     * @param sql the query to run
+     * @return the value read, or null if the query returned no rows
+     */
+    private static String query(ConnectionManager manager, String sql) throws SQLException {
+        return manager.write(conn -> {
+            try (ResultSet rs = conn.prepare(sql).executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        });
+    }
+
+    /**
+     * Private function used to read a task the same way the Database class does.
+     *
+     * @param manager the connections to query
+     * @param name the name of the task
+     * @return the task, or null if there is no task with the name
+     */
+    private static Task task(ConnectionManager manager, String name) throws SQLException {
+        return manager.write(conn -> {
+            PreparedStatement statement = conn.prepare("SELECT " + RowMapper.TASK_COLUMNS + " FROM task WHERE name = ?");
+            statement.setString(1, name);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? RowMapper.toTask(rs) : null;
+            }
+        });
+    }
+
+    /**
+     * Private function used to get the query plan SQLite chooses for a query.
+     *
+     * @param manager the connections to query
+     * @param sql the query to plan
+     * @return the details of every step of the plan
+     */
+    private static String plan(ConnectionManager manager, String sql) throws SQLException {
+        return manager.write(conn -> {
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = conn.prepare("EXPLAIN QUERY PLAN " + sql).executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString("detail")).append('\n');
+                }
+            }
+            return plan.toString();
+        });
+    }
+}
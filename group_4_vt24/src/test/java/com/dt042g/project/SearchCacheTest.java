@@ -0,0 +1,136 @@
+package com.dt042g.project;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class containing functions used to test the cache holding the results of
+ * recent searches.
+ */
+public class SearchCacheTest {
+
+    /**
+     * A test meant to ensure that repeated queries are answered from the cache.
+     * Expected result is that the search only runs once for queries that differ in case.
+     */
+    @Test
+    public void testCachedQuery() throws Exception {
+        SearchCache<List<String>> cache = new SearchCache<>(10, 100, List::size);
+        AtomicInteger searches = new AtomicInteger();
+
+        for (String query : new String[] {"milk", "MILK", "Milk"}) {
+            assertEquals(List.of("Buy milk"), cache.get(query, () -> {
+                searches.incrementAndGet();
+                return List.of("Buy milk");
+            }));
+        }
+
+        assertEquals(1, searches.get());
+        assertEquals(2, cache.stats().getHits());
+        assertEquals(1, cache.stats().getMisses());
+    }
+
+    /**
+     * A test meant to ensure that the cache stays within its bounds.
+     * Expected result is that the least recently used queries are evicted first, and
+     * results heavier than the whole cache are not kept.
+     */
+    @Test
+    public void testEviction() throws Exception {
+        SearchCache<List<String>> cache = new SearchCache<>(2, 10, List::size);
+        cache.get("a", () -> List.of("a"));
+        cache.get("b", () -> List.of("b"));
+        cache.get("a", () -> fail("'a' should be cached"));
+        cache.get("c", () -> List.of("c"));
+
+        assertEquals(2, cache.size());
+        cache.get("a", () -> fail("'a' was used recently and should still be cached"));
+        AtomicInteger searches = new AtomicInteger();
+        cache.get("b", () -> {
+            searches.incrementAndGet();
+            return List.of("b");
+        });
+        assertEquals(1, searches.get(), "'b' was used least recently and should have been evicted");
+
+        List<String> heavy = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            heavy.add("task " + i);
+        }
+        cache.get("heavy", () -> heavy);
+        assertEquals(2, cache.size(), "Results heavier than the cache should not be kept");
+    }
+
+    /**
+     * A test meant to ensure that results read before a write are not cached after it.
+     * Expected result is that invalidating during a search leaves the cache empty.
+     */
+    @Test
+    public void testInvalidation() throws Exception {
+        SearchCache<List<String>> cache = new SearchCache<>(10, 100, List::size);
+        cache.get("milk", () -> List.of("Buy milk"));
+        cache.invalidate();
+        assertEquals(0, cache.size());
+
+        List<String> stale = cache.get("milk", () -> {
+            cache.invalidate();
+            return List.of("Buy milk");
+        });
+        assertEquals(List.of("Buy milk"), stale, "The caller should still get the results of its search");
+        assertEquals(0, cache.size(), "Results of a search overlapping a write should not be cached");
+    }
+
+    /**
+     * A test meant to ensure that a query extending a cached one narrows down the cached results.
+     * Expected result is that the full search only runs for the first query, and that the
+     * narrowest cached results are the ones refined.
+     */
+    @Test
+    public void testRefinement() throws Exception {
+        List<String> names = List.of("Meet Anna", "Meeting notes", "Team meeting", "Weekly review");
+        SearchCache<List<String>> cache = new SearchCache<>(10, 100, List::size);
+        AtomicInteger searches = new AtomicInteger();
+        List<List<String>> refined = new ArrayList<>();
+
+        for (String query : new String[] {"mee", "MEET", "meeting"}) {
+            List<String> found = cache.get(query, () -> {
+                searches.incrementAndGet();
+                return filter(names, query);
+            }, previous -> {
+                refined.add(previous);
+                return filter(previous, query);
+            });
+            assertEquals(filter(names, query), found, "Refined results should match a full search for '" + query + "'");
+        }
+
+        assertEquals(1, searches.get(), "Only the first query should run the full search");
+        assertEquals(2, cache.refinements());
+        assertEquals(filter(names, "meet"), refined.get(1), "The narrowest contained query should be refined");
+
+        cache.invalidate();
+        cache.get("meeting notes", () -> {
+            searches.incrementAndGet();
+            return filter(names, "meeting notes");
+        }, previous -> fail("Results from before a write should not be refined"));
+        assertEquals(2, searches.get());
+    }
+
+    /**
+     * Private function used to keep the names containing a query, ignoring case.
+     *
+     * @param names the names to search
+     * @param query the query
+     * @return the matching names
+     */
+    private static List<String> filter(List<String> names, String query) {
+        List<String> matches = new ArrayList<>();
+        for (String name : names) {
+            if (TrigramIndex.containsIgnoreCase(name, query)) matches.add(name);
+        }
+        return matches;
+    }
+}
@@ -6,6 +6,7 @@ import org.json.simple.JSONObject;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.BufferedWriter;
@@ -14,8 +15,10 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -37,11 +40,38 @@ public class TaskControllerTest {
     public void testReturnEvent() {
         ActionListener mockListener = e -> {assertEquals("back", e.getActionCommand());};
 
-        TaskController controller = new TaskController(new ArrayList<>(), mockListener);
+        TaskController controller = new TaskController(null, mockListener);
 
         controller.actionPerformed(new ActionEvent(this, ActionEvent.ACTION_PERFORMED, "return"));
     }
 
+    /**
+     * Test to check that going back right after deleting the displayed task
+     * waits for the delete. The expected result is that the task is gone from
+     * the database by the time 'back' is passed to the main controller.
+     */
+    @Test
+    public void testReturnAfterDelete() throws Exception {
+        String name = "deleteThenReturn";
+        Database.addTask(List.of(name, "info", "Work", "2000-01-01"));
+        try {
+            long id = Database.getSearchedTasks(name).getFirst().id();
+            Task task = Database.findTask(id).orElseThrow();
+            CompletableFuture<Boolean> deletedWhenBack = new CompletableFuture<>();
+
+            TaskController controller = new TaskController(task,
+                    e -> deletedWhenBack.complete(Database.findTask(id).isEmpty()));
+            EventQueue.invokeAndWait(() -> {
+                controller.actionPerformed(new ActionEvent(this, ActionEvent.ACTION_PERFORMED, "delete"));
+                controller.actionPerformed(new ActionEvent(this, ActionEvent.ACTION_PERFORMED, "return"));
+            });
+
+            assertTrue(deletedWhenBack.get(5, TimeUnit.SECONDS), "The task should be deleted before going back");
+        } finally {
+            Database.deleteTask(name);
+        }
+    }
+
     /**
      * Test used to check what happens when an unknown command is passed to the
      * TaskController class. The expected result is that the parent controller
@@ -51,7 +81,7 @@ public class TaskControllerTest {
     public void testInvalidEvent() {
         ActionListener mockListener = e -> Assertions.fail();
 
-        TaskController controller = new TaskController(new ArrayList<>(), mockListener);
+        TaskController controller = new TaskController(null, mockListener);
 
         controller.actionPerformed(new ActionEvent(this, ActionEvent.ACTION_PERFORMED, "explode"));
     }
@@ -64,13 +94,9 @@ public class TaskControllerTest {
     @Test
     public void testExportEvent() {
         ActionListener mockListener = e -> {};
-        List<String> list = new ArrayList<>();
-        list.add("task1test");
-        list.add("this is a task");
-        list.add("2400-05-14");
-        list.add("work");
+        Task task = new Task(0, "task1test", "this is a task", "work", LocalDate.of(2400, 5, 14));
 
-        TaskController controller = new TaskController(list,mockListener);
+        TaskController controller = new TaskController(task,mockListener);
 
         try {
             Method method = controller.getClass().getDeclaredMethod("exportTask", String.class);
@@ -105,13 +131,9 @@ public class TaskControllerTest {
     @Test
     public void testExportCollisionEvent() {
         ActionListener mockListener = e -> {};
-        List<String> list = new ArrayList<>();
-        list.add("task1test");
-        list.add("this is a task");
-        list.add("2400-05-14");
-        list.add("work");
+        Task task = new Task(0, "task1test", "this is a task", "work", LocalDate.of(2400, 5, 14));
 
-        TaskController controller = new TaskController(list,mockListener);
+        TaskController controller = new TaskController(task,mockListener);
 
         try {
             JSONObject jsonObject = new JSONObject();
@@ -0,0 +1,149 @@
+package com.dt042g.project;
+
+import com.dt042g.project.views.TaskListModel;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class containing functions used to test the model of the task list,
+ * and how it updates its rows when given a new list of tasks.
+ */
+public class TaskListModelTest {
+
+    /**
+     * A test meant to ensure that narrowing down a list only removes rows.
+     * Expected result is one removal event per run of removed rows, and no other events.
+     */
+    @Test
+    public void testNarrowingRemovesRows() {
+        TaskListModel model = new TaskListModel();
+        model.update(tasks(1, 2, 3, 4, 5, 6));
+        List<String> events = record(model);
+
+        model.update(tasks(1, 4, 5));
+
+        assertEquals(List.of("removed 5-5", "removed 1-2"), events);
+        assertEquals(tasks(1, 4, 5), contents(model));
+    }
+
+    /**
+     * A test meant to ensure that adding a task to a list only inserts its row.
+     * Expected result is a single insert event, and a change event for a renamed task.
+     */
+    @Test
+    public void testInsertAndChange() {
+        TaskListModel model = new TaskListModel();
+        model.update(tasks(1, 2, 3));
+        List<String> events = record(model);
+
+        List<TaskSummary> refreshed = new ArrayList<>(tasks(1, 2, 3));
+        refreshed.add(1, new TaskSummary(9, "task 9"));
+        refreshed.set(3, new TaskSummary(3, "renamed"));
+        model.update(refreshed);
+
+        assertEquals(List.of("added 1-1", "changed 3-3"), events);
+        assertEquals(refreshed, contents(model));
+    }
+
+    /**
+     * A test meant to ensure that a moved task only moves its own row.
+     * Expected result is that the row is removed and inserted, and the others stay.
+     */
+    @Test
+    public void testMove() {
+        TaskListModel model = new TaskListModel();
+        model.update(tasks(1, 2, 3, 4, 5));
+        List<String> events = record(model);
+
+        model.update(tasks(2, 3, 4, 5, 1));
+
+        assertEquals(List.of("removed 0-0", "added 4-4"), events);
+        assertEquals(tasks(2, 3, 4, 5, 1), contents(model));
+    }
+
+    /**
+     * A test meant to ensure that updating always ends with the new list.
+     * Expected result is that random updates leave exactly the new tasks, in order.
+     */
+    @Test
+    public void testRandomUpdates() {
+        Random random = new Random(11);
+        TaskListModel model = new TaskListModel();
+
+        for(int round = 0; round < 200; round++) {
+            List<TaskSummary> next = new ArrayList<>();
+            for(long id = 0; id < 30; id++) {
+                if(random.nextBoolean()) {
+                    next.add(new TaskSummary(id, "task " + id + (random.nextInt(5) == 0 ? "!" : "")));
+                }
+            }
+            Collections.shuffle(next.subList(0, next.size() / 3), random);
+
+            model.update(next);
+            assertEquals(next, contents(model));
+        }
+    }
+
+    /**
+     * Private function used to create tasks with the given ids.
+     *
+     * @param ids the ids of the tasks
+     * @return the tasks
+     */
+    private static List<TaskSummary> tasks(long... ids) {
+        List<TaskSummary> tasks = new ArrayList<>();
+        for(long id: ids) {
+            tasks.add(new TaskSummary(id, "task " + id));
+        }
+        return tasks;
+    }
+
+    /**
+     * Private function used to get every task in a model.
+     *
+     * @param model the model
+     * @return the tasks in the model, in order
+     */
+    private static List<TaskSummary> contents(TaskListModel model) {
+        List<TaskSummary> tasks = new ArrayList<>();
+        for(int i = 0; i < model.getSize(); i++) {
+            tasks.add(model.getElementAt(i));
+        }
+        return tasks;
+    }
+
+    /**
+     * Private function used to record the events sent by a model.
+     *
+     * @param model the model
+     * @return the list the events are recorded to
+     */
+    private static List<String> record(TaskListModel model) {
+        List<String> events = new ArrayList<>();
+        model.addListDataListener(new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent e) {
+                events.add("added " + e.getIndex0() + "-" + e.getIndex1());
+            }
+
+            @Override
+            public void intervalRemoved(ListDataEvent e) {
+                events.add("removed " + e.getIndex0() + "-" + e.getIndex1());
+            }
+
+            @Override
+            public void contentsChanged(ListDataEvent e) {
+                events.add("changed " + e.getIndex0() + "-" + e.getIndex1());
+            }
+        });
+        return events;
+    }
+}
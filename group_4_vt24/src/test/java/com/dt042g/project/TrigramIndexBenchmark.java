@@ -0,0 +1,152 @@
+package com.dt042g.project;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * Benchmark comparing substring searches through the trigram index with
+ * the SQL LIKE query it replaces, on generated databases of increasing size.
+ * Not run as part of the tests, run its main method with the test classpath,
+ * optionally passing the table sizes as arguments.
+ */
+public class TrigramIndexBenchmark {
+    private static final String[] WORDS = {"work", "meeting", "groceries", "gym", "project", "plan", "call",
+            "report", "invoice", "dentist", "birthday", "laundry", "review", "deploy", "garden", "taxes"};
+    private static final String[] QUERIES = {"meet", "plan", "tax", "ort 12", "dentist 99", "zzz"};
+    private static final int ROUNDS = 20;
+
+    /**
+     * Function used to run the benchmark.
+     *
+     * @param args the numbers of tasks to benchmark with, 10000, 100000 and 1000000 by default
+     */
+    public static void main(String[] args) throws Exception {
+        int[] sizes = args.length == 0 ? new int[] {10_000, 100_000, 1_000_000} : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+
+        System.out.printf("%10s %12s %14s %14s %10s%n", "tasks", "build ms", "LIKE us/query", "index us/query",
+                "speedup");
+        for (int size : sizes) {
+            run(size);
+        }
+    }
+
+    /**
+     * Private function used to benchmark one table size.
+     *
+     * @param size the number of tasks to generate
+     */
+    private static void run(int size) throws Exception {
+        File directory = Files.createTempDirectory("trigram-benchmark").toFile();
+        Properties properties = new Properties();
+        properties.setProperty("url", "jdbc:sqlite:" + new File(directory, "benchmark.db").getAbsolutePath());
+
+        try (ConnectionManager manager = new ConnectionManager(TuningProfile.fromProperties(properties))) {
+            Migrations.migrate(manager);
+            generate(manager, size);
+
+            TrigramIndex index = new TrigramIndex();
+            long start = System.nanoTime();
+            manager.write(conn -> {
+                index.load(conn);
+                return null;
+            });
+            long buildNanos = System.nanoTime() - start;
+
+            long likeMatches = 0;
+            long indexMatches = 0;
+            start = System.nanoTime();
+            for (int round = 0; round < ROUNDS; round++) {
+                for (String query : QUERIES) {
+                    likeMatches += like(manager, query);
+                }
+            }
+            long likeNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int round = 0; round < ROUNDS; round++) {
+                for (String query : QUERIES) {
+                    indexMatches += index.search(query).size();
+                }
+            }
+            long indexNanos = System.nanoTime() - start;
+
+            if (likeMatches != indexMatches) {
+                throw new IllegalStateException("LIKE found " + likeMatches + " matches, the index " + indexMatches);
+            }
+
+            int queries = ROUNDS * QUERIES.length;
+            System.out.printf("%10d %12d %14d %14d %9.1fx%n", size, buildNanos / 1_000_000,
+                    likeNanos / queries / 1000, indexNanos / queries / 1000, (double) likeNanos / indexNanos);
+        } finally {
+            delete(directory);
+        }
+    }
+
+    /**
+     * Private function used to fill the task table with generated tasks.
+     *
+     * @param manager the connections to the database
+     * @param size the number of tasks to generate
+     */
+    private static void generate(ConnectionManager manager, int size) throws Exception {
+        Random random = new Random(size);
+        manager.transaction(conn -> {
+            PreparedStatement statement = conn.prepare(
+                    "INSERT INTO task (name, information, category, due_date) VALUES (?, '', ?, 0)");
+            for (int i = 0; i < size; i++) {
+                statement.setString(1, WORDS[random.nextInt(WORDS.length)] + " "
+                        + WORDS[random.nextInt(WORDS.length)] + " " + i);
+                statement.setString(2, WORDS[random.nextInt(WORDS.length)]);
+                statement.addBatch();
+                if (i % 10_000 == 9_999) statement.executeBatch();
+            }
+            statement.executeBatch();
+            return null;
+        });
+    }
+
+    /**
+     * Private function used to run the SQL LIKE query the index replaces.
+     *
+     * @param manager the connections to the database
+     * @param query the text to search for
+     * @return the number of matching tasks
+     */
+    private static int like(ConnectionManager manager, String query) throws Exception {
+        return manager.read(conn -> {
+            PreparedStatement statement = conn.prepare(
+                    "SELECT task_id, name FROM task WHERE name LIKE ? OR category LIKE ?");
+            statement.setString(1, "%" + query + "%");
+            statement.setString(2, "%" + query + "%");
+
+            int matches = 0;
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) matches++;
+            }
+            return matches;
+        });
+    }
+
+    /**
+     * Private function used to delete the temporary database directory.
+     *
+     * @param directory the directory to delete
+     */
+    private static void delete(File directory) throws IOException {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                Files.deleteIfExists(file.toPath());
+            }
+        }
+        Files.deleteIfExists(directory.toPath());
+    }
+}
@@ -0,0 +1,153 @@
+package com.dt042g.project;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class containing functions used to test the trigram index used for
+ * substring searches over tasks, and its compressed posting lists.
+ */
+public class TrigramIndexTest {
+
+    @TempDir
+    File tempDir;
+
+    /**
+     * A test meant to ensure that posting lists keep their ids sorted and unique.
+     * Expected result is that ids added in any order are read back in increasing order,
+     * and removed ids are gone.
+     */
+    @Test
+    public void testPostingList() {
+        PostingList list = new PostingList();
+        for (long id : new long[] {5, 300, 1, 70_000, 300, 2}) {
+            list.add(id);
+        }
+        assertArrayEquals(new long[] {1, 2, 5, 300, 70_000}, list.toArray());
+
+        assertTrue(list.remove(300));
+        assertFalse(list.remove(4));
+        assertArrayEquals(new long[] {1, 2, 5, 70_000}, list.toArray());
+    }
+
+    /**
+     * A test meant to ensure that small gaps between ids are stored in a single byte each.
+     * Expected result is one byte per id for consecutive ids.
+     */
+    @Test
+    public void testPostingListCompression() {
+        PostingList list = new PostingList();
+        for (long id = 1; id <= 1000; id++) {
+            list.add(id);
+        }
+        assertEquals(1000, list.encodedSize());
+    }
+
+    /**
+     * A test meant to ensure that the index finds the same tasks as a substring match.
+     * Expected result is that random queries return exactly the tasks whose name or category
+     * contains the query, ignoring the case of ASCII letters.
+     */
+    @Test
+    public void testSearchMatchesSubstrings() throws Exception {
+        List<String[]> rows = new ArrayList<>();
+        Random random = new Random(42);
+        String[] words = {"Work", "meeting", "Groceries", "gym", "Project plan", "call MOM", "äpple"};
+        for (int i = 0; i < 200; i++) {
+            rows.add(new String[] {words[random.nextInt(words.length)] + " " + i, words[random.nextInt(words.length)]});
+        }
+
+        try (ConnectionManager manager = manager()) {
+            manager.transaction(conn -> {
+                PreparedStatement statement = conn.prepare("INSERT INTO task (name, information, category) "
+                        + "VALUES (?, '', ?)");
+                for (String[] row : rows) {
+                    statement.setString(1, row[0]);
+                    statement.setString(2, row[1]);
+                    statement.executeUpdate();
+                }
+                return null;
+            });
+
+            TrigramIndex index = new TrigramIndex();
+            manager.write(conn -> {
+                index.load(conn);
+                return null;
+            });
+
+            for (String query : new String[] {"work", "MEET", "oc", "an p", "1", "17", "mom", "ÄPP", "äpp", "zzz", ""}) {
+                List<String> expected = new ArrayList<>();
+                for (String[] row : rows) {
+                    if (containsAsciiIgnoreCase(row[0], query) || containsAsciiIgnoreCase(row[1], query)) {
+                        expected.add(row[0]);
+                    }
+                }
+                List<String> found = index.search(query).stream().map(TaskSummary::name).toList();
+                assertEquals(expected, found, "Unexpected matches for the query '" + query + "'");
+            }
+        }
+    }
+
+    /**
+     * A test meant to ensure that the index follows tasks being added and removed.
+     * Expected result is that a task can be found after it is added and not after it is removed.
+     */
+    @Test
+    public void testIncrementalUpdates() throws Exception {
+        try (ConnectionManager manager = manager()) {
+            TrigramIndex index = new TrigramIndex();
+            manager.write(conn -> {
+                index.load(conn);
+                return null;
+            });
+
+            index.add(7, "Water the plants", "Home");
+            index.add(3, "Plan the trip", "Holiday");
+            assertEquals(List.of(new TaskSummary(3, "Plan the trip"), new TaskSummary(7, "Water the plants")),
+                    List.copyOf(index.search("plan")));
+
+            index.remove(7);
+            assertEquals(List.of(new TaskSummary(3, "Plan the trip")), List.copyOf(index.search("plan")));
+            index.remove(3);
+            assertEquals(0, index.trigramCount(), "Trigrams without tasks should be dropped");
+        }
+    }
+
+    /**
+     * Private function used to create a connection manager for a new, migrated database file.
+     *
+     * @return the connection manager
+     */
+    private ConnectionManager manager() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("url", "jdbc:sqlite:" + new File(tempDir, "trigram.db").getAbsolutePath());
+        ConnectionManager manager = new ConnectionManager(TuningProfile.fromProperties(properties));
+        Migrations.migrate(manager);
+        return manager;
+    }
+
+    /**
+     * Private function used to check for a substring the way SQL LIKE does,
+     * by lower-casing only ASCII letters.
+     *
+     * @param text the text to search in
+     * @param query the text to search for
+     * @return true if the text contains the query, false otherwise
+     */
+    private static boolean containsAsciiIgnoreCase(String text, String query) {
+        StringBuilder foldedText = new StringBuilder();
+        for (char c : text.toCharArray()) foldedText.append(c >= 'A' && c <= 'Z' ? (char) (c + 32) : c);
+        StringBuilder foldedQuery = new StringBuilder();
+        for (char c : query.toCharArray()) foldedQuery.append(c >= 'A' && c <= 'Z' ? (char) (c + 32) : c);
+        return foldedText.toString().contains(foldedQuery);
+    }
+}
@@ -10,8 +10,6 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionListener;
 import java.lang.reflect.Field;
-import java.util.ArrayList;
-import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -33,6 +31,7 @@ public class ViewTest {
     public static void createWindow() {
         //EventQueue.invokeLater(()-> window = new AppWindow());
         window = new AppWindow();
+        window.showScreen("test");
     }
 
     /**
@@ -72,11 +71,9 @@ public class ViewTest {
 
     @Test
     public void testEmptyTaskDisplay() {
-        List<String> emptyList = new ArrayList<>();
-
         ActionListener mockListener = e -> {};
 
-        assertDoesNotThrow(()->new TaskDisplay(emptyList, mockListener));
+        assertDoesNotThrow(()->new TaskDisplay(null, mockListener));
     }
 
     @Test